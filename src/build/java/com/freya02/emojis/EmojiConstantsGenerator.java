@@ -0,0 +1,350 @@
+package com.freya02.emojis;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Generates the <code>EmojiConstants</code> class from <code>JEmojis.json</code>
+ * <br>This runs as a single-file source program during the <code>generate-sources</code> phase, before the library is compiled,
+ * so it must only depend on the JDK and Gson, its source is kept ASCII as the launcher uses the platform encoding
+ * <p>
+ * Usage: <code>java -cp &lt;gson&gt; EmojiConstantsGenerator.java &lt;JEmojis.json&gt; &lt;output source directory&gt;</code>
+ */
+public class EmojiConstantsGenerator {
+	private static final String CLASS_NAME = "EmojiConstants";
+
+	/** Keeps the generated methods well under the 64 KB bytecode limit */
+	private static final int MAX_CASES_PER_SWITCH = 200;
+
+	private static class JsonEmoji {
+		private String subpage;
+		private String unicode;
+		private final List<String> shortcodes = new ArrayList<>();
+		private boolean supportsFitzpatrick;
+
+		private String constantName;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: EmojiConstantsGenerator <input JSON> <output source directory>");
+			System.exit(1);
+
+			return;
+		}
+
+		final List<JsonEmoji> emojis = readEmojis(Path.of(args[0]));
+		assignConstantNames(emojis);
+
+		final Path output = Path.of(args[1], "com", "freya02", "emojis", CLASS_NAME + ".java");
+		Files.createDirectories(output.getParent());
+		Files.writeString(output, generate(emojis), StandardCharsets.UTF_8);
+
+		System.out.println("Generated " + emojis.size() + " emoji constants in " + output);
+	}
+
+	private static List<JsonEmoji> readEmojis(Path path) throws IOException {
+		final List<JsonEmoji> emojis = new ArrayList<>();
+
+		try (Reader fileReader = Files.newBufferedReader(path, StandardCharsets.UTF_8); JsonReader reader = new JsonReader(fileReader)) {
+			reader.beginObject();
+			while (reader.hasNext()) {
+				if (!reader.nextName().equals("emojis")) {
+					reader.skipValue();
+
+					continue;
+				}
+
+				reader.beginArray();
+				while (reader.hasNext()) {
+					final JsonEmoji emoji = new JsonEmoji();
+
+					reader.beginObject();
+					while (reader.hasNext()) {
+						switch (reader.nextName()) {
+							case "subpage":
+								emoji.subpage = reader.nextString();
+								break;
+							case "unicode":
+								emoji.unicode = reader.nextString();
+								break;
+							case "shortcodes":
+								reader.beginArray();
+								while (reader.hasNext()) {
+									emoji.shortcodes.add(reader.nextString());
+								}
+								reader.endArray();
+								break;
+							case "supportsFitzpatrick":
+								emoji.supportsFitzpatrick = reader.nextBoolean();
+								break;
+							default:
+								reader.skipValue();
+						}
+					}
+					reader.endObject();
+
+					emojis.add(emoji);
+				}
+				reader.endArray();
+			}
+			reader.endObject();
+		}
+
+		return emojis;
+	}
+
+	private static void assignConstantNames(List<JsonEmoji> emojis) {
+		final Set<String> usedNames = new HashSet<>();
+
+		for (JsonEmoji emoji : emojis) {
+			final String base = emoji.shortcodes.isEmpty() ? emoji.subpage : emoji.shortcodes.get(0);
+
+			final StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < base.length(); i++) {
+				final char c = base.charAt(i);
+				if (c == '+') {
+					sb.append("PLUS_");
+				} else if (c == '-' && i == 0) {
+					sb.append("MINUS_");
+				} else if (Character.isLetterOrDigit(c) && c < 128) {
+					sb.append(Character.toUpperCase(c));
+				} else {
+					sb.append('_');
+				}
+			}
+			if (Character.isDigit(sb.charAt(0))) sb.insert(0, '_');
+
+			String name = sb.toString();
+			for (int i = 2; !usedNames.add(name); i++) {
+				name = sb + "_" + i;
+			}
+
+			emoji.constantName = name;
+		}
+	}
+
+	private static String generate(List<JsonEmoji> emojis) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("package com.freya02.emojis;\n\n");
+		sb.append("import java.util.List;\n\n");
+		sb.append("/**\n");
+		sb.append(" * Constants for every bundled {@link Emoji}, with resolvers compiled to <code>switch</code> statements\n");
+		sb.append(" * <br>The constants are the instances of {@link Emojis}, resolved by ID, so no emoji is duplicated and <code>==</code> can be used\n");
+		sb.append(" * <br>The first use of this class therefore loads the bundled emojis through {@link Emojis}, the resolvers do not need its lookup indexes\n");
+		sb.append(" * <p>\n");
+		sb.append(" * <b>This class is generated from JEmojis.json during the build, do not edit it</b>\n");
+		sb.append(" */\n");
+		sb.append("public final class ").append(CLASS_NAME).append(" {\n");
+		sb.append("\tprivate static final Emoji[] EMOJIS = new Emoji[").append(emojis.size()).append("];\n");
+		sb.append("\t/** Hash of the emojis' Unicode, in ID order, checks that the constants are resolved to the emojis they were generated from */\n");
+		sb.append("\tprivate static final int UNICODE_ORDER_HASH = ").append(getUnicodeOrderHash(emojis)).append(";\n\n");
+
+		sb.append("\tstatic {\n");
+		sb.append("\t\tint unicodeOrderHash = 0;\n");
+		sb.append("\t\tfor (int id = 0; id < EMOJIS.length; id++) {\n");
+		sb.append("\t\t\tEMOJIS[id] = Emojis.byId(id);\n");
+		sb.append("\t\t\tif (EMOJIS[id] == null) break;\n\n");
+		sb.append("\t\t\tunicodeOrderHash = 31 * unicodeOrderHash + EMOJIS[id].unicode().hashCode();\n");
+		sb.append("\t\t}\n\n");
+		sb.append("\t\tif (Emojis.getEmojis().size() != EMOJIS.length || unicodeOrderHash != UNICODE_ORDER_HASH) {\n");
+		sb.append("\t\t\tthrow new IllegalStateException(\"").append(CLASS_NAME).append(" was generated from different emoji data\");\n");
+		sb.append("\t\t}\n");
+		sb.append("\t}\n\n");
+
+		for (int id = 0; id < emojis.size(); id++) {
+			final JsonEmoji emoji = emojis.get(id);
+			sb.append("\t/** ").append(emoji.unicode).append(" <code>:").append(String.join(":</code>, <code>:", emoji.shortcodes)).append(":</code> */\n");
+			sb.append("\tpublic static final Emoji ").append(emoji.constantName).append(" = EMOJIS[").append(id).append("];\n");
+		}
+		sb.append('\n');
+
+		sb.append("\tprivate ").append(CLASS_NAME).append("() {}\n\n");
+
+		sb.append("\t/**\n");
+		sb.append("\t * Returns all the emoji constants, in ID order\n");
+		sb.append("\t *\n");
+		sb.append("\t * @return An immutable list of the emojis\n");
+		sb.append("\t */\n");
+		sb.append("\tpublic static List<Emoji> values() {\n");
+		sb.append("\t\treturn List.of(EMOJIS);\n");
+		sb.append("\t}\n\n");
+
+		final Map<String, JsonEmoji> shortcodeCases = new LinkedHashMap<>();
+		final Map<String, JsonEmoji> unicodeCases = new LinkedHashMap<>();
+		for (JsonEmoji emoji : emojis) {
+			for (String shortcode : emoji.shortcodes) {
+				shortcodeCases.put(shortcode, emoji);
+			}
+
+			//Only the stripped form is a case, the argument is stripped the same way
+			unicodeCases.putIfAbsent(stripUnicode(emoji.unicode), emoji);
+		}
+
+		sb.append("\t/**\n");
+		sb.append("\t * Retrieves an {@link Emoji} with the matching shortcode such as <code>:joy:</code>\n");
+		sb.append("\t *\n");
+		sb.append("\t * @param shortcode The shortcode emoji to find\n");
+		sb.append("\t * @return An {@link Emoji} with the matching shortcode, or <code>null</code> if not found\n");
+		sb.append("\t */\n");
+		sb.append("\tpublic static Emoji ofShortcode(String shortcode) {\n");
+		sb.append("\t\tif (shortcode.length() > 2 && shortcode.charAt(0) == ':' && shortcode.charAt(shortcode.length() - 1) == ':') {\n");
+		sb.append("\t\t\tshortcode = shortcode.substring(1, shortcode.length() - 1);\n");
+		sb.append("\t\t}\n\n");
+		sb.append("\t\treturn resolveShortcode(shortcode);\n");
+		sb.append("\t}\n\n");
+
+		sb.append("\t/**\n");
+		sb.append("\t * Retrieves an {@link Emoji} with the matching Unicode such as <code>\uD83D\uDE02</code>\n");
+		sb.append("\t * <br>As with {@link Emojis#ofUnicode(String)}, variation selectors and a trailing zero width joiner are ignored\n");
+		sb.append("\t *\n");
+		sb.append("\t * @param unicode The Unicode emoji to find\n");
+		sb.append("\t * @return An {@link Emoji} with the matching unicode, or <code>null</code> if not found\n");
+		sb.append("\t */\n");
+		sb.append("\tpublic static Emoji ofUnicode(String unicode) {\n");
+		sb.append("\t\treturn resolveUnicode(stripUnicode(unicode));\n");
+		sb.append("\t}\n\n");
+
+		sb.append("\tprivate static String stripUnicode(String unicode) {\n");
+		sb.append("\t\tint length = unicode.length();\n");
+		sb.append("\t\tif (length > 1 && unicode.charAt(length - 1) == '\\u200D') length--;\n\n");
+		sb.append("\t\t//The first char is kept, as Emojis does not skip a leading variation selector\n");
+		sb.append("\t\tStringBuilder sb = null;\n");
+		sb.append("\t\tfor (int i = 1; i < length; i++) {\n");
+		sb.append("\t\t\tfinal char c = unicode.charAt(i);\n");
+		sb.append("\t\t\tif (c == '\\uFE0E' || c == '\\uFE0F') {\n");
+		sb.append("\t\t\t\tif (sb == null) sb = new StringBuilder(length).append(unicode, 0, i);\n");
+		sb.append("\t\t\t} else if (sb != null) {\n");
+		sb.append("\t\t\t\tsb.append(c);\n");
+		sb.append("\t\t\t}\n");
+		sb.append("\t\t}\n\n");
+		sb.append("\t\tif (sb != null) return sb.toString();\n\n");
+		sb.append("\t\treturn length == unicode.length() ? unicode : unicode.substring(0, length);\n");
+		sb.append("\t}\n\n");
+
+		generateResolver(sb, "resolveShortcode", shortcodeCases);
+		generateResolver(sb, "resolveUnicode", unicodeCases);
+
+		sb.setLength(sb.length() - 1);
+		sb.append("}\n");
+
+		return sb.toString();
+	}
+
+	/**
+	 * Generates a switch on the key's length, each length having its own method,
+	 * which is further split on the key's last char if it has too many cases
+	 */
+	private static void generateResolver(StringBuilder sb, String name, Map<String, JsonEmoji> cases) {
+		final Map<Integer, Map<String, JsonEmoji>> byLength = groupBy(cases, String::length);
+
+		sb.append("\tprivate static Emoji ").append(name).append("(String key) {\n");
+		sb.append("\t\tswitch (key.length()) {\n");
+		for (int length : byLength.keySet()) {
+			sb.append("\t\t\tcase ").append(length).append(": return ").append(name).append(length).append("(key);\n");
+		}
+		sb.append("\t\t\tdefault: return null;\n");
+		sb.append("\t\t}\n");
+		sb.append("\t}\n\n");
+
+		for (Map.Entry<Integer, Map<String, JsonEmoji>> entry : byLength.entrySet()) {
+			final String bucketName = name + entry.getKey();
+			final Map<String, JsonEmoji> bucket = entry.getValue();
+
+			if (bucket.size() <= MAX_CASES_PER_SWITCH) {
+				generateSwitch(sb, bucketName, bucket);
+			} else {
+				final int subBuckets = Integer.highestOneBit(bucket.size() / MAX_CASES_PER_SWITCH) * 2;
+				final Map<Integer, Map<String, JsonEmoji>> bySubBucket = groupBy(bucket, key -> key.charAt(key.length() - 1) & (subBuckets - 1));
+
+				sb.append("\tprivate static Emoji ").append(bucketName).append("(String key) {\n");
+				sb.append("\t\tswitch (key.charAt(key.length() - 1) & ").append(subBuckets - 1).append(") {\n");
+				for (int subBucket : bySubBucket.keySet()) {
+					sb.append("\t\t\tcase ").append(subBucket).append(": return ").append(bucketName).append('_').append(subBucket).append("(key);\n");
+				}
+				sb.append("\t\t\tdefault: return null;\n");
+				sb.append("\t\t}\n");
+				sb.append("\t}\n\n");
+
+				for (Map.Entry<Integer, Map<String, JsonEmoji>> subEntry : bySubBucket.entrySet()) {
+					generateSwitch(sb, bucketName + '_' + subEntry.getKey(), subEntry.getValue());
+				}
+			}
+		}
+	}
+
+	private static void generateSwitch(StringBuilder sb, String name, Map<String, JsonEmoji> cases) {
+		sb.append("\tprivate static Emoji ").append(name).append("(String key) {\n");
+		sb.append("\t\tswitch (key) {\n");
+		for (Map.Entry<String, JsonEmoji> entry : cases.entrySet()) {
+			sb.append("\t\t\tcase ").append(literal(entry.getKey())).append(": return ").append(entry.getValue().constantName).append(";\n");
+		}
+		sb.append("\t\t\tdefault: return null;\n");
+		sb.append("\t\t}\n");
+		sb.append("\t}\n\n");
+	}
+
+	private static Map<Integer, Map<String, JsonEmoji>> groupBy(Map<String, JsonEmoji> cases, Function<String, Integer> keyFunction) {
+		final Map<Integer, Map<String, JsonEmoji>> groups = new TreeMap<>();
+		for (Map.Entry<String, JsonEmoji> entry : cases.entrySet()) {
+			groups.computeIfAbsent(keyFunction.apply(entry.getKey()), x -> new LinkedHashMap<>()).put(entry.getKey(), entry.getValue());
+		}
+
+		return groups;
+	}
+
+	/**
+	 * Removes the variation selectors and a trailing zero width joiner, except a leading one, like the generated <code>stripUnicode</code>
+	 */
+	private static String stripUnicode(String unicode) {
+		int length = unicode.length();
+		if (length > 1 && unicode.charAt(length - 1) == '\u200D') length--;
+
+		final StringBuilder sb = new StringBuilder(length).append(unicode.charAt(0));
+		for (int i = 1; i < length; i++) {
+			final char c = unicode.charAt(i);
+			if (c != '\uFE0E' && c != '\uFE0F') sb.append(c);
+		}
+
+		return sb.toString();
+	}
+
+	private static int getUnicodeOrderHash(List<JsonEmoji> emojis) {
+		int hash = 0;
+		for (JsonEmoji emoji : emojis) {
+			hash = 31 * hash + emoji.unicode.hashCode();
+		}
+
+		return hash;
+	}
+
+	private static String literal(String str) {
+		final StringBuilder sb = new StringBuilder("\"");
+		for (int i = 0; i < str.length(); i++) {
+			final char c = str.charAt(i);
+			if (c == '"' || c == '\\') {
+				sb.append('\\').append(c);
+			} else if (c < 0x20 || c >= 0x7F) {
+				sb.append(String.format(Locale.ROOT, "\\u%04X", (int) c));
+			} else {
+				sb.append(c);
+			}
+		}
+
+		return sb.append('"').toString();
+	}
+}
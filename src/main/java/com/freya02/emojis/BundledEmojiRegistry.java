@@ -0,0 +1,44 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+
+/**
+ * {@link EmojiRegistry} of the bundled emojis, delegating to the lazily built indexes of {@link Emojis}
+ */
+final class BundledEmojiRegistry extends EmojiRegistry {
+	static final BundledEmojiRegistry INSTANCE = new BundledEmojiRegistry();
+
+	private BundledEmojiRegistry() {}
+
+	@NotNull
+	@Override
+	public Set<Emoji> getEmojis() {
+		return Emojis.getEmojis();
+	}
+
+	@Nullable
+	@Override
+	public Emoji byId(int id) {
+		return Emojis.byId(id);
+	}
+
+	@NotNull
+	@Override
+	UnicodeTrie getUnicodeTrie() {
+		return Emojis.getUnicodeTrie();
+	}
+
+	@Nullable
+	@Override
+	Emoji getByShortcode(@NotNull CharSequence text, int start, int end) {
+		return Emojis.getShortcodeTable().get(text, start, end);
+	}
+
+	@Override
+	int getMaxShortcodeLength() {
+		return Emojis.getShortcodeTable().getMaxLength();
+	}
+}
@@ -0,0 +1,112 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A Discord custom emoji, written as <code>&lt;:name:id&gt;</code>, or <code>&lt;a:name:id&gt;</code> if it is animated
+ *
+ * @see CustomEmojiRegistry
+ */
+public final class CustomEmoji {
+	/** Maximum length of a custom emoji name */
+	public static final int MAX_NAME_LENGTH = 32;
+
+	private final String name;
+	private final long id;
+	private final boolean animated;
+
+	/**
+	 * Creates a custom emoji
+	 *
+	 * @param name     The name of the emoji, made of 2 to 32 letters, digits or <code>_</code>
+	 * @param id       The ID of the emoji
+	 * @param animated Whether the emoji is animated
+	 * @throws IllegalArgumentException If the name is invalid
+	 */
+	public CustomEmoji(@NotNull String name, long id, boolean animated) {
+		if (name.length() < 2 || name.length() > MAX_NAME_LENGTH) {
+			throw new IllegalArgumentException("Custom emoji name must be between 2 and " + MAX_NAME_LENGTH + " characters: " + name);
+		}
+
+		for (int i = 0; i < name.length(); i++) {
+			if (!isNameChar(name.charAt(i))) {
+				throw new IllegalArgumentException("Custom emoji name can only contain letters, digits and _: " + name);
+			}
+		}
+
+		this.name = name;
+		this.id = id;
+		this.animated = animated;
+	}
+
+	/**
+	 * Returns the name of this emoji, used as its shortcode
+	 *
+	 * @return The name of this emoji
+	 */
+	@NotNull
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the ID of this emoji
+	 *
+	 * @return The ID of this emoji
+	 */
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * Returns whether this emoji is animated
+	 *
+	 * @return <code>true</code> if the emoji is animated
+	 */
+	public boolean isAnimated() {
+		return animated;
+	}
+
+	/**
+	 * Returns this emoji as it is written in a message, such as <code>&lt;:name:id&gt;</code>
+	 *
+	 * @return The formatted emoji
+	 */
+	@NotNull
+	public String getFormatted() {
+		return (animated ? "<a:" : "<:") + name + ':' + id + '>';
+	}
+
+	static boolean isNameChar(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		CustomEmoji that = (CustomEmoji) o;
+
+		if (id != that.id) return false;
+		if (animated != that.animated) return false;
+		return name.equals(that.name);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = name.hashCode();
+		result = 31 * result + Long.hashCode(id);
+		result = 31 * result + (animated ? 1 : 0);
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "CustomEmoji{" +
+				"name='" + name + '\'' +
+				", id=" + id +
+				", animated=" + animated +
+				'}';
+	}
+}
@@ -0,0 +1,146 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the custom emojis of each guild, which can be updated at any time, including while messages are being parsed
+ * <br>Each guild has an immutable set of emojis, updates replace it, so a parsing call always sees a consistent set of emojis
+ *
+ * @see EmojiParser#toUnicode(String, CustomEmojiRegistry, long)
+ */
+public final class CustomEmojiRegistry {
+	private final Map<Long, GuildEmojis> guilds = new ConcurrentHashMap<>();
+
+	/**
+	 * Replaces all the custom emojis of a guild
+	 *
+	 * @param guildId The ID of the guild
+	 * @param emojis  The new custom emojis of the guild
+	 */
+	public void setEmojis(long guildId, @NotNull Collection<CustomEmoji> emojis) {
+		if (emojis.isEmpty()) {
+			guilds.remove(guildId);
+		} else {
+			final Map<String, CustomEmoji> byName = new HashMap<>((int) (emojis.size() / 0.75f) + 1);
+			for (CustomEmoji emoji : emojis) {
+				byName.put(emoji.getName(), emoji);
+			}
+
+			guilds.put(guildId, new GuildEmojis(byName));
+		}
+	}
+
+	/**
+	 * Adds or replaces a custom emoji of a guild, an emoji with the same name is replaced
+	 *
+	 * @param guildId The ID of the guild
+	 * @param emoji   The custom emoji to add
+	 */
+	public void putEmoji(long guildId, @NotNull CustomEmoji emoji) {
+		guilds.compute(guildId, (id, old) -> {
+			final Map<String, CustomEmoji> byName = old == null ? new HashMap<>() : new HashMap<>(old.byName);
+			byName.values().removeIf(e -> e.getId() == emoji.getId());
+			byName.put(emoji.getName(), emoji);
+
+			return new GuildEmojis(byName);
+		});
+	}
+
+	/**
+	 * Removes a custom emoji of a guild
+	 *
+	 * @param guildId The ID of the guild
+	 * @param emojiId The ID of the custom emoji to remove
+	 */
+	public void removeEmoji(long guildId, long emojiId) {
+		guilds.computeIfPresent(guildId, (id, old) -> {
+			final Map<String, CustomEmoji> byName = new HashMap<>(old.byName);
+			byName.values().removeIf(e -> e.getId() == emojiId);
+
+			return byName.isEmpty() ? null : new GuildEmojis(byName);
+		});
+	}
+
+	/**
+	 * Removes all the custom emojis of a guild
+	 *
+	 * @param guildId The ID of the guild
+	 */
+	public void removeGuild(long guildId) {
+		guilds.remove(guildId);
+	}
+
+	/**
+	 * Returns the custom emojis of a guild
+	 *
+	 * @param guildId The ID of the guild
+	 * @return An unmodifiable collection of the custom emojis of the guild, not affected by later updates
+	 */
+	@NotNull
+	public Collection<CustomEmoji> getEmojis(long guildId) {
+		final GuildEmojis emojis = guilds.get(guildId);
+		if (emojis == null) return Collections.emptyList();
+
+		return Collections.unmodifiableCollection(emojis.byName.values());
+	}
+
+	/**
+	 * Retrieves a custom emoji of a guild by its name
+	 *
+	 * @param guildId The ID of the guild
+	 * @param name    The name of the custom emoji, with or without <code>:</code>
+	 * @return The custom emoji, or <code>null</code> if not found
+	 */
+	@Nullable
+	public CustomEmoji ofName(long guildId, @NotNull String name) {
+		final GuildEmojis emojis = guilds.get(guildId);
+		if (emojis == null) return null;
+
+		final int length = name.length();
+		if (length > 2 && name.charAt(0) == ':' && name.charAt(length - 1) == ':') {
+			return emojis.get(name, 1, length - 1);
+		} else {
+			return emojis.get(name, 0, length);
+		}
+	}
+
+	/**
+	 * Returns the current emojis of a guild
+	 *
+	 * @return The emojis of the guild, or <code>null</code> if it has none
+	 */
+	@Nullable
+	GuildEmojis getGuild(long guildId) {
+		return guilds.get(guildId);
+	}
+
+	/**
+	 * Immutable custom emojis of a guild
+	 * <br>Names are also indexed in a {@link ShortcodeTable}, so they can be looked up in the text being parsed without creating a substring
+	 */
+	static final class GuildEmojis {
+		private final Map<String, CustomEmoji> byName;
+		private final ShortcodeTable<CustomEmoji> table;
+
+		private GuildEmojis(Map<String, CustomEmoji> byName) {
+			this.byName = byName;
+			this.table = new ShortcodeTable<>(byName.size());
+
+			for (CustomEmoji emoji : byName.values()) {
+				table.put(emoji.getName(), emoji);
+			}
+		}
+
+		@Nullable
+		CustomEmoji get(@NotNull CharSequence text, int start, int end) {
+			return table.get(text, start, end);
+		}
+	}
+}
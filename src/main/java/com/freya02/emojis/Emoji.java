@@ -1,29 +1,46 @@
 package com.freya02.emojis;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static com.freya02.emojis.TwemojiType.X72;
 
 /**
  * Class containing basic info about an emoji such as their Unicode and shortcode representations with a few helper methods
  * <br>You can also see more info by using {@link #retrieveExtendedInfo()}
+ * <p>
+ * Emojis are immutable, their derived representations are computed on first use and then reused
  *
  * @see #retrieveExtendedInfo()
  */
 public final class Emoji {
 	private final String subpage;
 	private final String unicode;
-	private final List<String> shortcodes; //Shortcodes does NOT have :
+	private final List<String> shortcodes; //Shortcodes does NOT have :, immutable
 	private final boolean supportsFitzpatrick;
 
+	private final transient int[] codepoints;
+	private final transient int hash;
+
+	private transient int id = -1; //Index in the loaded emojis, see Emojis#byId
+
+	//Lazily computed representations, racy single-check initialization is fine as they are immutable
+	private transient List<String> utf16;
+	private transient List<Character> utf16Unescaped;
+	private transient List<String> unicodeCodepoints;
+	private transient List<String> hexCodepoints;
+	private transient String twemojiX72Url;
+	private transient String twemojiSvgUrl;
+	private transient String[] tonedUnicodes; //Lazily filled, indexed by Fitzpatrick ordinal
+
 	public Emoji(@NotNull String subpage, @NotNull String unicode, @NotNull List<String> shortcodes, boolean supportsFitzpatrick) {
 		this.subpage = subpage;
 		this.unicode = unicode;
-		this.shortcodes = shortcodes;
+		this.shortcodes = List.copyOf(shortcodes);
 		this.supportsFitzpatrick = supportsFitzpatrick;
 
 		for (String shortcode : shortcodes) {
@@ -31,6 +48,31 @@ public final class Emoji {
 				throw new IllegalArgumentException(": not allowed in shortcode " + shortcode);
 			}
 		}
+
+		this.codepoints = unicode.codePoints().toArray();
+
+		int hash = subpage.hashCode();
+		hash = 31 * hash + unicode.hashCode();
+		hash = 31 * hash + this.shortcodes.hashCode();
+		hash = 31 * hash + (supportsFitzpatrick ? 1 : 0);
+		this.hash = hash;
+	}
+
+	/**
+	 * Returns the ID of this emoji, which is its index in {@link Emojis#getEmojis()}
+	 * <br>IDs are dense, from <code>0</code> to the number of emojis (exclusive), and are stable as long as the emoji data does not change
+	 * <br>This allows storing per-emoji data in arrays or bit sets, see {@link EmojiSet} and {@link EmojiIntMap}
+	 * <br>Emojis of a {@link MappedEmojiTable} use their index in the table, emojis of a loaded {@link EmojiRegistry} have no ID
+	 *
+	 * @return The ID of this emoji, or <code>-1</code> if this emoji does not come from {@link Emojis}
+	 * @see Emojis#byId(int)
+	 */
+	public int getId() {
+		return id;
+	}
+
+	void setId(int id) {
+		this.id = id;
 	}
 
 	/**
@@ -51,7 +93,7 @@ public final class Emoji {
 	 * Returns the shortcodes for this emoji, such as <code>joy</code>
 	 * <br><b>These shortcodes does not have : in them</b>
 	 *
-	 * @return A list of shortcodes for this emoji
+	 * @return An immutable list of shortcodes for this emoji
 	 */
 	public List<String> shortcodes() { return shortcodes; }
 
@@ -64,6 +106,39 @@ public final class Emoji {
 		return supportsFitzpatrick;
 	}
 
+	/**
+	 * Returns the Unicode for this emoji with the specified skin tone applied, such as <code>👍🏽</code>
+	 * <br>The skin tone modifier is inserted after the first codepoint, replacing the emoji presentation selector if there is one
+	 *
+	 * @param fitzpatrick The skin tone to apply, or <code>null</code> for none
+	 * @return The Unicode for this emoji with the skin tone
+	 * @throws IllegalArgumentException If a skin tone is specified but this emoji does not support fitzpatrick
+	 * @see #doesSupportFitzpatrick()
+	 */
+	public String unicode(@Nullable Fitzpatrick fitzpatrick) {
+		if (fitzpatrick == null) return unicode;
+		if (!supportsFitzpatrick) {
+			throw new IllegalArgumentException("Emoji " + unicode + " does not support fitzpatrick");
+		}
+
+		String[] tonedUnicodes = this.tonedUnicodes;
+		if (tonedUnicodes == null) {
+			tonedUnicodes = this.tonedUnicodes = new String[Fitzpatrick.values().length];
+		}
+
+		String tonedUnicode = tonedUnicodes[fitzpatrick.ordinal()];
+		if (tonedUnicode == null) {
+			final int baseLength = Character.charCount(unicode.codePointAt(0));
+			final int restStart = baseLength < unicode.length() && unicode.charAt(baseLength) == 0xFE0F
+					? baseLength + 1
+					: baseLength;
+
+			tonedUnicode = tonedUnicodes[fitzpatrick.ordinal()] = unicode.substring(0, baseLength) + fitzpatrick.unicode() + unicode.substring(restStart);
+		}
+
+		return tonedUnicode;
+	}
+
 	/**
 	 * Returns an Action to retrieve the extended info of this emoji
 	 *
@@ -73,51 +148,61 @@ public final class Emoji {
 		return new ActionImpl<>(() -> ExtendedEmoji.of(this));
 	}
 
+	/**
+	 * Returns the codepoints of this emoji
+	 * <br><code>😂</code> will return <code>[0x1F602]</code> for example
+	 *
+	 * @return A new array containing the codepoints of this emoji
+	 */
+	public int[] getCodepoints() {
+		return codepoints.clone();
+	}
+
 	/**
 	 * Returns a list of string representing the escaped UTF-16 representation of this emoji
 	 * <br><code>😂</code> will return "[\u005CuD83D, \u005CuDE02]" for example
 	 *
-	 * @return The escaped UTF-16 strings for this emoji
+	 * @return The escaped UTF-16 strings for this emoji, as an immutable list
 	 */
 	public List<String> getUTF16() {
-		int[] codepoints = unicode.codePoints().toArray();
-
-		List<String> list = new ArrayList<>();
-		for (int codePoint : codepoints) {
-			final char[] chars = Character.toChars(codePoint);
-			for (char aChar : chars) {
-				final String hex = Integer.toHexString(aChar).toUpperCase();
-				if (hex.equals("FE0F"))
-					continue; //Skip invisible codepoint which specifies that the preceding character should be displayed with emoji presentation
+		List<String> utf16 = this.utf16;
+		if (utf16 == null) {
+			final List<Character> chars = getUTF16Unescaped();
+			final String[] escaped = new String[chars.size()];
+			for (int i = 0; i < escaped.length; i++) {
+				final String hex = Integer.toHexString(chars.get(i)).toUpperCase();
 
-				list.add("\\u" + "0".repeat(4 - hex.length()) + hex);
+				escaped[i] = "\\u" + "0".repeat(4 - hex.length()) + hex;
 			}
+
+			utf16 = this.utf16 = List.of(escaped);
 		}
 
-		return list;
+		return utf16;
 	}
 
 	/**
 	 * Returns a list of characters representing the unescaped UTF-16 representation of this emoji
 	 * <br><code>😂</code> will return "[\uD83D, \uDE02]" for example
 	 *
-	 * @return The escaped UTF-16 strings for this emoji
+	 * @return The escaped UTF-16 strings for this emoji, as an immutable list
 	 */
 	public List<Character> getUTF16Unescaped() {
-		int[] codepoints = unicode.codePoints().toArray();
-
-		List<Character> list = new ArrayList<>();
-		for (int codePoint : codepoints) {
-			final char[] chars = Character.toChars(codePoint);
-			for (char aChar : chars) {
+		List<Character> utf16Unescaped = this.utf16Unescaped;
+		if (utf16Unescaped == null) {
+			final List<Character> list = new ArrayList<>(unicode.length());
+			for (int i = 0; i < unicode.length(); i++) {
+				final char aChar = unicode.charAt(i);
 				if (aChar == 0xFE0F)
 					continue; //Skip invisible codepoint which specifies that the preceding character should be displayed with emoji presentation
 
 				list.add(aChar);
 			}
+
+			utf16Unescaped = this.utf16Unescaped = Collections.unmodifiableList(list);
 		}
 
-		return list;
+		return utf16Unescaped;
 	}
 
 	/**
@@ -125,12 +210,20 @@ public final class Emoji {
 	 * <br><code>😂</code> will return "[U+1F602]" for example
 	 * <br><b>The codepoints will be in hexadecimal and full uppercase</b>
 	 *
-	 * @return The unicode codepoints representation
+	 * @return The unicode codepoints representation, as an immutable list
 	 */
 	public List<String> getUnicodeCodepoints() {
-		return unicode.codePoints()
-				.mapToObj(codepoint -> "U+" + Integer.toHexString(codepoint).toUpperCase())
-				.collect(Collectors.toList());
+		List<String> unicodeCodepoints = this.unicodeCodepoints;
+		if (unicodeCodepoints == null) {
+			final String[] array = new String[codepoints.length];
+			for (int i = 0; i < array.length; i++) {
+				array[i] = "U+" + Integer.toHexString(codepoints[i]).toUpperCase();
+			}
+
+			unicodeCodepoints = this.unicodeCodepoints = List.of(array);
+		}
+
+		return unicodeCodepoints;
 	}
 
 	/**
@@ -138,12 +231,20 @@ public final class Emoji {
 	 * <br><code>😂</code> will return "[1f602]" for example
 	 * <br><b>The codepoints will be in hexadecimal and full lowercase</b>
 	 *
-	 * @return The unicode codepoints representation
+	 * @return The unicode codepoints representation, as an immutable list
 	 */
 	public List<String> getHexCodepoints() {
-		return unicode.codePoints()
-				.mapToObj(Integer::toHexString)
-				.collect(Collectors.toList());
+		List<String> hexCodepoints = this.hexCodepoints;
+		if (hexCodepoints == null) {
+			final String[] array = new String[codepoints.length];
+			for (int i = 0; i < array.length; i++) {
+				array[i] = Integer.toHexString(codepoints[i]);
+			}
+
+			hexCodepoints = this.hexCodepoints = List.of(array);
+		}
+
+		return hexCodepoints;
 	}
 
 	/**
@@ -153,10 +254,21 @@ public final class Emoji {
 	 * @return The Twemoji assert URL of the specified type
 	 */
 	public String getTwemojiImageUrl(TwemojiType type) {
-		final String folder = type == X72 ? "72x72" : "svg";
-		final String extension = type == X72 ? ".png" : ".svg";
+		if (type == X72) {
+			String url = twemojiX72Url;
+			if (url == null) {
+				url = twemojiX72Url = "https://raw.githubusercontent.com/twitter/twemoji/master/assets/72x72/" + String.join("-", getHexCodepoints()) + ".png";
+			}
 
-		return "https://raw.githubusercontent.com/twitter/twemoji/master/assets/" + folder + "/" + String.join("-", getHexCodepoints()) + extension;
+			return url;
+		} else {
+			String url = twemojiSvgUrl;
+			if (url == null) {
+				url = twemojiSvgUrl = "https://raw.githubusercontent.com/twitter/twemoji/master/assets/svg/" + String.join("-", getHexCodepoints()) + ".svg";
+			}
+
+			return url;
+		}
 	}
 
 	/**
@@ -183,6 +295,7 @@ public final class Emoji {
 
 		Emoji emoji = (Emoji) o;
 
+		if (hash != emoji.hash) return false;
 		if (supportsFitzpatrick != emoji.supportsFitzpatrick) return false;
 		if (!subpage.equals(emoji.subpage)) return false;
 		if (!unicode.equals(emoji.unicode)) return false;
@@ -191,11 +304,7 @@ public final class Emoji {
 
 	@Override
 	public int hashCode() {
-		int result = subpage.hashCode();
-		result = 31 * result + unicode.hashCode();
-		result = 31 * result + shortcodes.hashCode();
-		result = 31 * result + (supportsFitzpatrick ? 1 : 0);
-		return result;
+		return hash;
 	}
 
 	@Override
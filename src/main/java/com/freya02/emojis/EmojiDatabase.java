@@ -0,0 +1,255 @@
+package com.freya02.emojis;
+
+import org.slf4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary format of an {@link EmojiStore}, which can be loaded with a single read and no JSON parsing
+ * <p>
+ * Layout, all integers being big endian:
+ * <pre>
+ * int     magic ("JEMJ")
+ * short   version
+ * int     string count (S)
+ * int[S]  string end offsets, relative to the string data
+ * byte[]  UTF-8 string data
+ * int     shortcode count (C)
+ * int[C]  string index of each shortcode
+ * int     emoji count (E)
+ * E fixed width records:
+ *   int   string index of the subpage
+ *   int   string index of the unicode
+ *   int   index of the first shortcode
+ *   short number of shortcodes
+ *   short flags (bit 0: supports fitzpatrick)
+ * int[E]  emoji indexes, sorted by their UTF-8 unicode without variation selectors
+ * int[C]  shortcode indexes, sorted by their UTF-8 shortcode
+ * int[C]  emoji index of each shortcode
+ * </pre>
+ * The sorted indexes allow binary searching the database without loading it, see {@link MappedEmojiTable}
+ * <p>
+ * The bundled database is generated from <code>JEmojis.json</code> by running {@link #main(String[])} during the build
+ */
+final class EmojiDatabase {
+	private static final Logger LOGGER = Logging.getLogger();
+
+	static final String RESOURCE_NAME = "JEmojis.bin";
+
+	private static final int MAGIC = 0x4A454D4A; //JEMJ
+	private static final short VERSION = 2;
+
+	static final int HEADER_SIZE = Integer.BYTES + Short.BYTES;
+	static final int RECORD_SIZE = 3 * Integer.BYTES + 2 * Short.BYTES;
+	static final short FLAG_FITZPATRICK = 1;
+
+	private EmojiDatabase() {}
+
+	/**
+	 * Compiles a JSON emoji store into the binary format
+	 *
+	 * @param args The path of the JSON store, and the path of the binary output
+	 * @throws IllegalArgumentException If the arguments are not the two paths
+	 * @throws IOException              If the JSON store does not exist, or could not be read or compiled
+	 */
+	public static void main(String[] args) throws IOException {
+		//Runs in the Maven JVM with exec:java, so errors are thrown to be reported by the build instead of exiting
+		if (args.length != 2) {
+			throw new IllegalArgumentException("Usage: EmojiDatabase <input JSON> <output binary>, got " + args.length + " arguments");
+		}
+
+		final Path input = Path.of(args[0]);
+		final Path output = Path.of(args[1]);
+		if (Files.notExists(input)) {
+			throw new IOException("Emoji store " + input.toAbsolutePath() + " does not exist");
+		}
+
+		final EmojiStore store = EmojiStore.load(input);
+
+		Files.createDirectories(output.toAbsolutePath().getParent());
+		try (OutputStream out = Files.newOutputStream(output)) {
+			write(store.getEmojis(), out);
+		}
+
+		LOGGER.info("Compiled {} emojis to {}", store.getEmojis().size(), output);
+	}
+
+	static void write(Collection<Emoji> emojis, OutputStream output) throws IOException {
+		final Map<String, Integer> stringIndexes = new HashMap<>();
+		final List<String> strings = new ArrayList<>();
+		final List<Integer> shortcodeIndexes = new ArrayList<>();
+		final List<Integer> shortcodeOwners = new ArrayList<>();
+
+		int emojiIndex = 0;
+		for (Emoji emoji : emojis) {
+			intern(stringIndexes, strings, emoji.subpage());
+			intern(stringIndexes, strings, emoji.unicode());
+			for (String shortcode : emoji.shortcodes()) {
+				shortcodeIndexes.add(intern(stringIndexes, strings, shortcode));
+				shortcodeOwners.add(emojiIndex);
+			}
+
+			emojiIndex++;
+		}
+
+		final ByteArrayOutputStream stringData = new ByteArrayOutputStream();
+		final byte[][] stringBytes = new byte[strings.size()][];
+		final int[] stringEnds = new int[strings.size()];
+		for (int i = 0; i < strings.size(); i++) {
+			stringBytes[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+			stringData.writeBytes(stringBytes[i]);
+			stringEnds[i] = stringData.size();
+		}
+
+		final DataOutputStream out = new DataOutputStream(output);
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+
+		out.writeInt(stringEnds.length);
+		for (int stringEnd : stringEnds) {
+			out.writeInt(stringEnd);
+		}
+		stringData.writeTo(out);
+
+		out.writeInt(shortcodeIndexes.size());
+		for (int shortcodeIndex : shortcodeIndexes) {
+			out.writeInt(shortcodeIndex);
+		}
+
+		out.writeInt(emojis.size());
+		int shortcodeStart = 0;
+		final List<byte[]> unicodeKeys = new ArrayList<>(emojis.size());
+		for (Emoji emoji : emojis) {
+			out.writeInt(stringIndexes.get(emoji.subpage()));
+			out.writeInt(stringIndexes.get(emoji.unicode()));
+			out.writeInt(shortcodeStart);
+			out.writeShort(emoji.shortcodes().size());
+			out.writeShort(emoji.doesSupportFitzpatrick() ? FLAG_FITZPATRICK : 0);
+
+			unicodeKeys.add(encodeUnicodeKey(emoji.unicode()));
+			shortcodeStart += emoji.shortcodes().size();
+		}
+
+		writeSortedIndexes(out, unicodeKeys);
+
+		final List<byte[]> shortcodeKeys = new ArrayList<>(shortcodeIndexes.size());
+		for (int shortcodeIndex : shortcodeIndexes) {
+			shortcodeKeys.add(stringBytes[shortcodeIndex]);
+		}
+		writeSortedIndexes(out, shortcodeKeys);
+
+		for (int shortcodeOwner : shortcodeOwners) {
+			out.writeInt(shortcodeOwner);
+		}
+
+		out.flush();
+	}
+
+	/**
+	 * Writes the indexes of the keys, sorted by their unsigned byte order
+	 */
+	private static void writeSortedIndexes(DataOutputStream out, List<byte[]> keys) throws IOException {
+		final Integer[] order = new Integer[keys.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(keys.get(a), keys.get(b)));
+
+		for (int index : order) {
+			out.writeInt(index);
+		}
+	}
+
+	/**
+	 * Encodes the unicode to UTF-8, without variation selectors nor a trailing zero width joiner, as ignored by {@link Emojis#ofUnicode(String)}
+	 * <br>Like there, the first char is always kept
+	 */
+	static byte[] encodeUnicodeKey(CharSequence unicode) {
+		int length = unicode.length();
+		if (length > 1 && unicode.charAt(length - 1) == 0x200D) length--;
+
+		final StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			final char c = unicode.charAt(i);
+			if (i == 0 || c != 0xFE0E && c != 0xFE0F) {
+				sb.append(c);
+			}
+		}
+
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	static EmojiStore read(InputStream input) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.wrap(input.readAllBytes());
+		checkHeader(buffer);
+
+		final String[] strings = new String[buffer.getInt()];
+		final int stringEndsStart = buffer.position();
+		final int stringDataStart = stringEndsStart + strings.length * Integer.BYTES;
+		int stringStart = 0;
+		for (int i = 0; i < strings.length; i++) {
+			final int stringEnd = buffer.getInt(stringEndsStart + i * Integer.BYTES);
+			strings[i] = new String(buffer.array(), stringDataStart + stringStart, stringEnd - stringStart, StandardCharsets.UTF_8);
+
+			stringStart = stringEnd;
+		}
+		buffer.position(stringDataStart + stringStart);
+
+		final String[] shortcodes = new String[buffer.getInt()];
+		for (int i = 0; i < shortcodes.length; i++) {
+			shortcodes[i] = strings[buffer.getInt()];
+		}
+		final List<String> shortcodeList = Arrays.asList(shortcodes);
+
+		final int emojiCount = buffer.getInt();
+		final EmojiStore store = new EmojiStore(emojiCount);
+		for (int i = 0; i < emojiCount; i++) {
+			final String subpage = strings[buffer.getInt()];
+			final String unicode = strings[buffer.getInt()];
+			final int shortcodeStart = buffer.getInt();
+			final int shortcodeCount = buffer.getShort();
+			final int flags = buffer.getShort();
+
+			final List<String> emojiShortcodes = shortcodeList.subList(shortcodeStart, shortcodeStart + shortcodeCount);
+			store.getEmojis().add(new Emoji(subpage, unicode, emojiShortcodes, (flags & FLAG_FITZPATRICK) != 0));
+		}
+
+		return store;
+	}
+
+	/**
+	 * Checks the magic and version of the database, and positions the buffer after them
+	 */
+	static void checkHeader(ByteBuffer buffer) throws IOException {
+		if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+			throw new IOException("Not an emoji database");
+		}
+
+		final short version = buffer.getShort();
+		if (version != VERSION) {
+			throw new IOException("Unsupported emoji database version " + version + ", expected " + VERSION);
+		}
+	}
+
+	private static int intern(Map<String, Integer> stringIndexes, List<String> strings, String string) {
+		return stringIndexes.computeIfAbsent(string, s -> {
+			strings.add(s);
+
+			return strings.size() - 1;
+		});
+	}
+}
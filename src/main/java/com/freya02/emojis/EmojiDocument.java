@@ -0,0 +1,292 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A text being edited, such as the draft of a chat input, along with the emojis it contains
+ * <br>Each {@link #edit(int, int, CharSequence) edit} only rescans a window around the edited range, instead of the whole text,
+ * and returns the emojis which were removed and added, so an editor can restyle or replace only these
+ * <p>
+ * The window starts early enough before the edit for any emoji which could now include the edited chars,
+ * and ends as soon as the scan reaches a position after the edit where the previous scan was also at,
+ * from there, the previous emojis are kept, with their positions shifted
+ * <br>The emojis found are always the same as the ones of {@link EmojiRegistry#segment(CharSequence, boolean)} on the whole text
+ * <p>
+ * A document is not thread safe
+ *
+ * @see EmojiRegistry#segment(CharSequence, boolean)
+ */
+public final class EmojiDocument {
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final EmojiSegmenter segmenter;
+	private final int lookbehind;
+	private final StringBuilder text;
+
+	//Emojis sorted by position, the first count ones are used
+	private int[] starts = new int[INITIAL_CAPACITY];
+	private int[] ends = new int[INITIAL_CAPACITY];
+	private Emoji[] emojis = new Emoji[INITIAL_CAPACITY];
+	private Fitzpatrick[] fitzpatricks = new Fitzpatrick[INITIAL_CAPACITY];
+	private int count;
+
+	private EmojiDocument(@NotNull EmojiRegistry registry, @NotNull CharSequence text, boolean shortcodes) {
+		this.text = new StringBuilder(text);
+		this.segmenter = new EmojiSegmenter(registry, this.text, shortcodes);
+		this.lookbehind = segmenter.getLookbehind();
+
+		while (segmenter.next()) {
+			if (segmenter.isEmoji()) {
+				ensureCapacity(count + 1);
+				set(count++, segmenter.getStart(), segmenter.getEnd(), segmenter.getEmoji(), segmenter.getFitzpatrick());
+			}
+		}
+	}
+
+	/**
+	 * Creates a document of the text, tracking its Unicode emojis
+	 *
+	 * @param registry The registry of the emojis to track
+	 * @param text     The initial text
+	 * @return A new document
+	 */
+	@NotNull
+	public static EmojiDocument of(@NotNull EmojiRegistry registry, @NotNull CharSequence text) {
+		return new EmojiDocument(registry, text, false);
+	}
+
+	/**
+	 * Creates a document of the text, tracking its emojis
+	 *
+	 * @param registry   The registry of the emojis to track
+	 * @param text       The initial text
+	 * @param shortcodes <code>true</code> if shortcodes of the registry, such as <code>:joy:</code>, are also tracked
+	 * @return A new document
+	 */
+	@NotNull
+	public static EmojiDocument of(@NotNull EmojiRegistry registry, @NotNull CharSequence text, boolean shortcodes) {
+		return new EmojiDocument(registry, text, shortcodes);
+	}
+
+	/**
+	 * Returns the current text of this document
+	 *
+	 * @return The text, which changes with the next edit
+	 */
+	@NotNull
+	public CharSequence getText() {
+		return text;
+	}
+
+	/**
+	 * Returns the emojis currently in this document
+	 *
+	 * @return A new list of the emojis, in order of appearance
+	 */
+	@NotNull
+	public List<EmojiMatch> getEmojis() {
+		return toMatches(0, count);
+	}
+
+	/**
+	 * Replaces <code>removedLength</code> chars at <code>offset</code> with the inserted text, and rescans the affected emojis
+	 *
+	 * @param offset        The index at which the edit starts
+	 * @param removedLength The number of chars removed at <code>offset</code>
+	 * @param inserted      The text inserted at <code>offset</code>, may be empty
+	 * @return The emojis which were removed and added by this edit
+	 * @throws IllegalArgumentException If the removed range is not in the text
+	 */
+	@NotNull
+	public EmojiDocumentChange edit(int offset, int removedLength, @NotNull CharSequence inserted) {
+		if (offset < 0 || removedLength < 0 || offset + removedLength > text.length())
+			throw new IllegalArgumentException("Removed range " + offset + " + " + removedLength + " is out of the text, of length " + text.length());
+
+		final int delta = inserted.length() - removedLength;
+		final int oldEditEnd = offset + removedLength;
+		final int newEditEnd = offset + inserted.length();
+
+		final int windowStart = findWindowStart(offset);
+		final int first = findFirstEmoji(windowStart);
+
+		text.replace(offset, oldEditEnd, inserted.toString());
+
+		//Rescan until the scan is at a position where the previous one was too, with the same text before it
+		final int length = text.length();
+		final int syncFrom = newEditEnd + 2; //A colon also depends on the <a before it
+		final List<int[]> newPositions = new ArrayList<>();
+		final List<Emoji> newEmojis = new ArrayList<>();
+		final List<Fitzpatrick> newFitzpatricks = new ArrayList<>();
+
+		segmenter.seek(windowStart);
+		int last = first; //First previous emoji after the scanned window
+		int position = windowStart;
+		while (position < length) {
+			if (position >= syncFrom) {
+				final int oldPosition = position - delta;
+				while (last < count && ends[last] <= oldPosition) last++;
+
+				final boolean insideEmoji = last < count && starts[last] < oldPosition;
+				if (!insideEmoji && !UnicodeTrie.isRegionalIndicator(Character.codePointBefore(text, position))) break;
+			}
+
+			final int emojiEnd = segmenter.findEmoji(position, length);
+			if (emojiEnd < 0) {
+				position = -emojiEnd;
+			} else {
+				newPositions.add(new int[]{position, emojiEnd});
+				newEmojis.add(segmenter.getFoundEmoji());
+				newFitzpatricks.add(segmenter.getFoundFitzpatrick());
+
+				position = emojiEnd;
+			}
+		}
+		if (position >= length) last = count;
+
+		final List<EmojiMatch> removed = toMatches(first, last);
+		replace(first, last, newPositions, newEmojis, newFitzpatricks, delta);
+		final List<EmojiMatch> added = toMatches(first, first + newPositions.size());
+
+		return getChange(removed, added, offset, oldEditEnd, delta);
+	}
+
+	/**
+	 * Finds the position, at or before the edit, from which a scan of the edited text finds the same emojis as a full scan
+	 */
+	private int findWindowStart(int offset) {
+		int windowStart = Math.max(0, offset - lookbehind);
+		while (true) {
+			//Start on a position where the previous scan was
+			final int index = findFirstEmoji(windowStart);
+			if (index < count && starts[index] < windowStart) {
+				windowStart = starts[index];
+			} else if (windowStart > 0 && Character.isLowSurrogate(text.charAt(windowStart)) && Character.isHighSurrogate(text.charAt(windowStart - 1))) {
+				windowStart--;
+			}
+
+			//Regional indicators are paired from the start of their run
+			if (windowStart > 0 && UnicodeTrie.isRegionalIndicator(Character.codePointBefore(text, windowStart))) {
+				windowStart -= 2;
+			} else {
+				return windowStart;
+			}
+		}
+	}
+
+	/**
+	 * @return The index of the first emoji ending after <code>position</code>
+	 */
+	private int findFirstEmoji(int position) {
+		int low = 0, high = count;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (ends[mid] <= position) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * Replaces the emojis from <code>first</code> to <code>last</code> (exclusive) by the new ones, and shifts the following ones
+	 */
+	private void replace(int first, int last, List<int[]> newPositions, List<Emoji> newEmojis, List<Fitzpatrick> newFitzpatricks, int delta) {
+		final int newCount = count - (last - first) + newPositions.size();
+		ensureCapacity(newCount);
+
+		final int tail = count - last;
+		final int newLast = first + newPositions.size();
+		System.arraycopy(starts, last, starts, newLast, tail);
+		System.arraycopy(ends, last, ends, newLast, tail);
+		System.arraycopy(emojis, last, emojis, newLast, tail);
+		System.arraycopy(fitzpatricks, last, fitzpatricks, newLast, tail);
+		if (newCount < count) Arrays.fill(emojis, newCount, count, null);
+
+		for (int i = 0; i < newPositions.size(); i++) {
+			final int[] positions = newPositions.get(i);
+			set(first + i, positions[0], positions[1], newEmojis.get(i), newFitzpatricks.get(i));
+		}
+
+		if (delta != 0) {
+			for (int i = newLast; i < newCount; i++) {
+				starts[i] += delta;
+				ends[i] += delta;
+			}
+		}
+
+		count = newCount;
+	}
+
+	/**
+	 * Removes the emojis present in both lists, which were rescanned but did not change
+	 */
+	private static EmojiDocumentChange getChange(List<EmojiMatch> removed, List<EmojiMatch> added, int offset, int oldEditEnd, int delta) {
+		final List<EmojiMatch> changedRemoved = new ArrayList<>(removed.size());
+		final List<EmojiMatch> changedAdded = new ArrayList<>(added.size());
+
+		int i = 0, j = 0;
+		while (i < removed.size() || j < added.size()) {
+			final EmojiMatch old = i < removed.size() ? removed.get(i) : null;
+			final EmojiMatch current = j < added.size() ? added.get(j) : null;
+
+			//Position of the old emoji in the edited text, if it was not touched by the edit
+			int oldStart = -1;
+			if (old != null) {
+				if (old.getEnd() <= offset) {
+					oldStart = old.getStart();
+				} else if (old.getStart() >= oldEditEnd) {
+					oldStart = old.getStart() + delta;
+				}
+			}
+
+			if (old != null && current != null && oldStart == current.getStart()
+					&& old.getEnd() - old.getStart() == current.getEnd() - current.getStart()
+					&& old.getEmoji().equals(current.getEmoji()) && old.getFitzpatrick() == current.getFitzpatrick()) {
+				i++;
+				j++;
+			} else if (current == null || old != null && (oldStart == -1 ? old.getStart() : oldStart) <= current.getStart()) {
+				changedRemoved.add(old);
+				i++;
+			} else {
+				changedAdded.add(current);
+				j++;
+			}
+		}
+
+		return new EmojiDocumentChange(Collections.unmodifiableList(changedRemoved), Collections.unmodifiableList(changedAdded));
+	}
+
+	private List<EmojiMatch> toMatches(int from, int to) {
+		final List<EmojiMatch> matches = new ArrayList<>(to - from);
+		for (int i = from; i < to; i++) {
+			matches.add(new EmojiMatch(emojis[i], fitzpatricks[i], starts[i], ends[i]));
+		}
+
+		return matches;
+	}
+
+	private void set(int index, int start, int end, Emoji emoji, Fitzpatrick fitzpatrick) {
+		starts[index] = start;
+		ends[index] = end;
+		emojis[index] = emoji;
+		fitzpatricks[index] = fitzpatrick;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= starts.length) return;
+
+		final int newCapacity = Math.max(capacity, starts.length * 2);
+		starts = Arrays.copyOf(starts, newCapacity);
+		ends = Arrays.copyOf(ends, newCapacity);
+		emojis = Arrays.copyOf(emojis, newCapacity);
+		fitzpatricks = Arrays.copyOf(fitzpatricks, newCapacity);
+	}
+}
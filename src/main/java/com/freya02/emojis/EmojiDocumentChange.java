@@ -0,0 +1,58 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Represents the emojis which changed after an edit of an {@link EmojiDocument}
+ * <br>Emojis which only moved because of the edit are not included
+ *
+ * @see EmojiDocument#edit(int, int, CharSequence)
+ */
+public final class EmojiDocumentChange {
+	private final List<EmojiMatch> removed;
+	private final List<EmojiMatch> added;
+
+	EmojiDocumentChange(@NotNull List<EmojiMatch> removed, @NotNull List<EmojiMatch> added) {
+		this.removed = removed;
+		this.added = added;
+	}
+
+	/**
+	 * Returns the emojis which are no longer in the document, with their positions before the edit
+	 *
+	 * @return An unmodifiable list of the removed emojis, in order of appearance
+	 */
+	@NotNull
+	public List<EmojiMatch> getRemoved() {
+		return removed;
+	}
+
+	/**
+	 * Returns the emojis which appeared in the document, with their positions after the edit
+	 *
+	 * @return An unmodifiable list of the added emojis, in order of appearance
+	 */
+	@NotNull
+	public List<EmojiMatch> getAdded() {
+		return added;
+	}
+
+	/**
+	 * Tells whether the edit changed no emoji
+	 *
+	 * @return <code>true</code> if no emoji was removed or added
+	 */
+	public boolean isEmpty() {
+		return removed.isEmpty() && added.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "EmojiDocumentChange{" +
+				"removed=" + removed +
+				", added=" + added +
+				'}';
+	}
+}
@@ -0,0 +1,239 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies an {@link EmojiTransform} to whole UTF-8 files, such as archived chat logs, using all the cores
+ * <p>
+ * The input is cut into segments ending at line breaks, which shortcodes and emojis cannot span,
+ * each segment is memory mapped and transformed by a worker thread with a {@link Utf8EmojiParser},
+ * then the transformed segments are written in order to the output {@link FileChannel}
+ * <br>No line is decoded to a {@link String}, and only a few segments are in memory at once
+ *
+ * @see #main(String[])
+ */
+public final class EmojiFileTranscoder {
+	private static final Logger LOGGER = Logging.getLogger();
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+	/** Default size of the segments, the actual ones extend to the next line break */
+	public static final int DEFAULT_SEGMENT_SIZE = 8 << 20;
+
+	private static final int LINE_SEARCH_BUFFER_SIZE = 8192;
+	private static final int MIN_OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+	private final Utf8EmojiParser parser;
+	private final EmojiTransform transform;
+	private final int threads;
+	private final int segmentSize;
+
+	/**
+	 * Creates a transcoder of the bundled emojis, using all the available cores
+	 *
+	 * @param transform The transform to apply
+	 */
+	public EmojiFileTranscoder(@NotNull EmojiTransform transform) {
+		this(EmojiRegistry.getDefault(), transform, Runtime.getRuntime().availableProcessors(), DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Creates a transcoder
+	 *
+	 * @param registry    The registry of the emojis to transform
+	 * @param transform   The transform to apply
+	 * @param threads     The number of worker threads
+	 * @param segmentSize The number of bytes each worker transforms at once, the actual segments extend to the next line break
+	 * @throws IllegalArgumentException If <code>threads</code> or <code>segmentSize</code> is not positive
+	 */
+	public EmojiFileTranscoder(@NotNull EmojiRegistry registry, @NotNull EmojiTransform transform, int threads, int segmentSize) {
+		if (threads <= 0) throw new IllegalArgumentException("Thread count must be positive: " + threads);
+		if (segmentSize <= 0) throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+
+		this.parser = Utf8EmojiParser.of(registry);
+		this.transform = transform;
+		this.threads = threads;
+		this.segmentSize = segmentSize;
+	}
+
+	/**
+	 * Transforms a UTF-8 file, the command line arguments are:
+	 * <ol>
+	 *     <li>The transform, <code>to-unicode</code>, <code>to-shortcodes</code>, <code>strip</code> or <code>extract</code></li>
+	 *     <li>The path of the input file</li>
+	 *     <li>The path of the output file, replaced if it exists</li>
+	 *     <li>Optionally, the number of threads</li>
+	 * </ol>
+	 *
+	 * @param args The command line arguments
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 3 && args.length != 4) {
+			System.err.println("Usage: EmojiFileTranscoder <to-unicode|to-shortcodes|strip|extract> <input> <output> [threads]");
+			System.exit(1);
+
+			return;
+		}
+
+		final EmojiTransform transform = EmojiTransform.valueOf(args[0].toUpperCase(Locale.ROOT).replace('-', '_'));
+		final Path input = Path.of(args[1]);
+		final Path output = Path.of(args[2]);
+		final int threads = args.length == 4 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+		final long start = System.nanoTime();
+		final long written = new EmojiFileTranscoder(EmojiRegistry.getDefault(), transform, threads, DEFAULT_SEGMENT_SIZE).transcode(input, output);
+
+		LOGGER.info("Transformed {} bytes to {} bytes in {} ms", Files.size(input), written, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	/**
+	 * Transforms the input file into the output file
+	 *
+	 * @param input  The path of the UTF-8 file to transform
+	 * @param output The path of the file to write, replaced if it exists
+	 * @return The number of bytes written
+	 * @throws IOException              If a file could not be read or written, or if a line is too long to be mapped
+	 * @throws IllegalArgumentException If the input and the output are the same file
+	 */
+	public long transcode(@NotNull Path input, @NotNull Path output) throws IOException {
+		if (Files.exists(output) && Files.isSameFile(input, output))
+			throw new IllegalArgumentException("Cannot transcode " + input + " into itself");
+
+		final ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+			final Thread thread = new Thread(r, "Emoji transcoder #" + THREAD_COUNT.incrementAndGet());
+			thread.setDaemon(true);
+
+			return thread;
+		});
+
+		try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+		     FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			final long size = in.size();
+
+			//Keep one segment ready per worker while the oldest one is written, so memory stays bounded
+			final Deque<Future<ByteBuffer[]>> pending = new ArrayDeque<>();
+			long position = 0;
+			long written = 0;
+			while (position < size || !pending.isEmpty()) {
+				while (position < size && pending.size() <= threads) {
+					final long segmentStart = position;
+					final long segmentEnd = findSegmentEnd(in, position, size);
+					pending.add(executor.submit(() -> transcodeSegment(in, segmentStart, segmentEnd)));
+
+					position = segmentEnd;
+				}
+
+				written += write(out, await(pending.removeFirst()));
+			}
+
+			return written;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Finds the end of the segment starting at <code>start</code>, which is after the first line break following the target segment size
+	 */
+	private long findSegmentEnd(FileChannel in, long start, long size) throws IOException {
+		final long target = start + segmentSize;
+		if (target >= size) return checkSegmentLength(start, size);
+
+		final ByteBuffer buffer = ByteBuffer.allocate(LINE_SEARCH_BUFFER_SIZE);
+		long position = target;
+		while (position < size) {
+			buffer.clear();
+			final int read = in.read(buffer, position);
+			if (read <= 0) break;
+
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == '\n') return checkSegmentLength(start, position + i + 1);
+			}
+
+			position += read;
+			checkSegmentLength(start, position);
+		}
+
+		return checkSegmentLength(start, size);
+	}
+
+	private static long checkSegmentLength(long start, long end) throws IOException {
+		if (end - start > Integer.MAX_VALUE)
+			throw new IOException("Line starting before byte " + start + " is too long to be mapped");
+
+		return end;
+	}
+
+	private ByteBuffer[] transcodeSegment(FileChannel in, long start, long end) {
+		try {
+			final MappedByteBuffer segment = in.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+
+			final List<ByteBuffer> outputs = new ArrayList<>(1);
+			ByteBuffer out = ByteBuffer.allocate(getOutputSize(segment.remaining()));
+			while (!transform.transform(parser, segment, out)) {
+				outputs.add(out.flip());
+				out = ByteBuffer.allocate(getOutputSize(segment.remaining()));
+			}
+			outputs.add(out.flip());
+
+			return outputs.toArray(new ByteBuffer[0]);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Estimates the size of the output, shortcodes are longer than emojis, but most of the text is usually copied as-is
+	 */
+	private static int getOutputSize(int remaining) {
+		return (int) Math.min(Integer.MAX_VALUE - 8, Math.max(MIN_OUTPUT_BUFFER_SIZE, remaining + (long) remaining / 4));
+	}
+
+	private static long write(FileChannel out, ByteBuffer[] buffers) throws IOException {
+		long written = 0;
+		for (ByteBuffer buffer : buffers) {
+			while (buffer.hasRemaining()) {
+				written += out.write(buffer);
+			}
+		}
+
+		return written;
+	}
+
+	private static ByteBuffer[] await(Future<ByteBuffer[]> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+
+			throw new InterruptedIOException("Interrupted while transcoding");
+		} catch (ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof UncheckedIOException) throw ((UncheckedIOException) cause).getCause();
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if (cause instanceof Error) throw (Error) cause;
+
+			throw new IOException("Could not transcode a segment", cause);
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A map from emojis to <code>int</code> values, backed by an array indexed by {@link Emoji#getId() emoji IDs}
+ * <br>This avoids boxing the values and hashing the emojis, which makes it suitable for counters
+ * <p>
+ * Every emoji is mapped to <code>0</code> by default, only emojis from {@link Emojis} can be set, other emojis, such as the ones of a loaded {@link EmojiRegistry}, are always mapped to <code>0</code>
+ * <br>This map is not thread safe
+ */
+public final class EmojiIntMap {
+	private final int[] values;
+
+	/**
+	 * Creates a map with all the emojis of {@link Emojis} mapped to <code>0</code>
+	 */
+	public EmojiIntMap() {
+		this.values = new int[Emojis.getEmojis().size()];
+	}
+
+	/**
+	 * Returns the value of the emoji with the specified ID
+	 *
+	 * @param id The ID of the emoji
+	 * @return The value of the emoji
+	 * @throws IndexOutOfBoundsException If the ID is not a valid emoji ID
+	 */
+	public int getById(int id) {
+		return values[id];
+	}
+
+	/**
+	 * Sets the value of the emoji with the specified ID
+	 *
+	 * @param id    The ID of the emoji
+	 * @param value The new value of the emoji
+	 * @return The previous value of the emoji
+	 * @throws IndexOutOfBoundsException If the ID is not a valid emoji ID
+	 */
+	public int putById(int id, int value) {
+		final int old = values[id];
+		values[id] = value;
+
+		return old;
+	}
+
+	/**
+	 * Adds <code>delta</code> to the value of the emoji with the specified ID
+	 *
+	 * @param id    The ID of the emoji
+	 * @param delta The value to add
+	 * @return The new value of the emoji
+	 * @throws IndexOutOfBoundsException If the ID is not a valid emoji ID
+	 */
+	public int addById(int id, int delta) {
+		return values[id] += delta;
+	}
+
+	/**
+	 * Returns the value of the emoji
+	 *
+	 * @param emoji The emoji
+	 * @return The value of the emoji, or <code>0</code> if the emoji does not come from {@link Emojis}
+	 */
+	public int get(@NotNull Emoji emoji) {
+		final int id = Emojis.getBundledId(emoji);
+		if (id == -1) return 0;
+
+		return values[id];
+	}
+
+	/**
+	 * Sets the value of the emoji
+	 *
+	 * @param emoji The emoji
+	 * @param value The new value of the emoji
+	 * @return The previous value of the emoji
+	 * @throws IllegalArgumentException If the emoji does not come from {@link Emojis}
+	 */
+	public int put(@NotNull Emoji emoji, int value) {
+		return putById(getBundledId(emoji), value);
+	}
+
+	/**
+	 * Adds <code>delta</code> to the value of the emoji
+	 *
+	 * @param emoji The emoji
+	 * @param delta The value to add
+	 * @return The new value of the emoji
+	 * @throws IllegalArgumentException If the emoji does not come from {@link Emojis}
+	 */
+	public int add(@NotNull Emoji emoji, int delta) {
+		return addById(getBundledId(emoji), delta);
+	}
+
+	/**
+	 * Runs the action on each emoji which has a non-zero value, in ID order
+	 *
+	 * @param action The action to run with the emoji and its value
+	 */
+	public void forEach(@NotNull ObjIntConsumer<Emoji> action) {
+		for (int id = 0; id < values.length; id++) {
+			final int value = values[id];
+			if (value != 0) {
+				action.accept(Emojis.byId(id), value);
+			}
+		}
+	}
+
+	/**
+	 * Sets the value of all emojis back to <code>0</code>
+	 */
+	public void clear() {
+		Arrays.fill(values, 0);
+	}
+
+	private static int getBundledId(Emoji emoji) {
+		final int id = Emojis.getBundledId(emoji);
+		if (id == -1) {
+			throw new IllegalArgumentException("Emoji " + emoji + " does not come from Emojis, it has no value in this map");
+		}
+
+		return id;
+	}
+}
@@ -0,0 +1,92 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents an {@link Emoji} found in a text, along with its position
+ *
+ * @see Emojis#findAll(CharSequence)
+ */
+public final class EmojiMatch {
+	private final Emoji emoji;
+	private final Fitzpatrick fitzpatrick;
+	private final int start;
+	private final int end;
+
+	EmojiMatch(@NotNull Emoji emoji, @Nullable Fitzpatrick fitzpatrick, int start, int end) {
+		this.emoji = emoji;
+		this.fitzpatrick = fitzpatrick;
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Returns the {@link Emoji} that was found
+	 *
+	 * @return The found {@link Emoji}
+	 */
+	public Emoji getEmoji() {
+		return emoji;
+	}
+
+	/**
+	 * Returns the skin tone applied to the emoji
+	 *
+	 * @return The skin tone, or <code>null</code> if there is none
+	 */
+	@Nullable
+	public Fitzpatrick getFitzpatrick() {
+		return fitzpatrick;
+	}
+
+	/**
+	 * Returns the index of the first char of this emoji in the text
+	 *
+	 * @return The start index, inclusive
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * Returns the index after the last char of this emoji in the text
+	 *
+	 * @return The end index, exclusive
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		EmojiMatch that = (EmojiMatch) o;
+
+		if (start != that.start) return false;
+		if (end != that.end) return false;
+		if (!emoji.equals(that.emoji)) return false;
+		return fitzpatrick == that.fitzpatrick;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = emoji.hashCode();
+		result = 31 * result + (fitzpatrick != null ? fitzpatrick.hashCode() : 0);
+		result = 31 * result + start;
+		result = 31 * result + end;
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "EmojiMatch{" +
+				"emoji=" + emoji.unicode() +
+				", fitzpatrick=" + fitzpatrick +
+				", start=" + start +
+				", end=" + end +
+				'}';
+	}
+}
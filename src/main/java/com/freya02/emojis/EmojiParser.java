@@ -1,13 +1,32 @@
 package com.freya02.emojis;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Utility class to convert unicode emojis to shortcodes and vice versa
+ * <br>These methods use the bundled emojis, the same conversions are available on any {@link EmojiRegistry}
  */
 public class EmojiParser {
-	private static final Pattern SHORTCODE_PATTERN = Pattern.compile(":(.+?|[+-]1):");
+	private static final int STREAM_BUFFER_SIZE = 8192;
+
+	/** Number of messages from which batches are converted in parallel */
+	private static final int PARALLEL_BATCH_THRESHOLD = 256;
+	/** Minimum number of chars of each chunk of a text converted in parallel, smaller texts are converted in the calling thread */
+	private static final int MIN_PARALLEL_CHUNK_SIZE = 32 * 1024;
+
+	/** Maximum number of digits of a custom emoji ID */
+	private static final int MAX_ID_DIGITS = 20;
+	/** Chars of a custom emoji token besides its name and colons, that is <code>&lt;a</code>, the ID and <code>&gt;</code> */
+	static final int CUSTOM_TOKEN_EXTRA_LENGTH = 2 + MAX_ID_DIGITS + 1;
+	/** Returned by {@link #findCustomTokenEnd(CharSequence, int, int)} when the text ends before the token does */
+	private static final int INCOMPLETE_TOKEN = 0;
 
 	/**
 	 * Replaces shortcode emojis to their unicode equivalent
@@ -15,32 +34,563 @@ public class EmojiParser {
 	 * <br><code>foo :joy: bar</code>
 	 * <br>V
 	 * <br><code>foo 😂 bar</code>
+	 * <p>
+	 * Skin tones are applied when written as Discord does, such as <code>:thumbsup::skin-tone-3:</code>
+	 * <br>A shortcode cannot contain spaces nor span multiple lines, unknown shortcodes are left as-is,
+	 * as well as Discord custom emojis such as <code>&lt;:joy:123456789&gt;</code>
 	 *
 	 * @param str The string with shortcode emojis to replace
-	 * @return A new string with the emojis shortcode replaced with their unicode
+	 * @return A new string with the emojis shortcode replaced with their unicode, or <code>str</code> if there was nothing to replace
 	 */
 	public static String toUnicode(String str) {
-		final StringBuilder sb = new StringBuilder(str.length());
-		final Matcher matcher = SHORTCODE_PATTERN.matcher(str);
+		return toUnicode(EmojiRegistry.getDefault(), str, null);
+	}
+
+	/**
+	 * Replaces shortcode emojis to their unicode equivalent, and the shortcodes of the guild's custom emojis to their <code>&lt;:name:id&gt;</code> form
+	 * <br>Both are handled in the same pass, custom emojis already written as <code>&lt;:name:id&gt;</code> or <code>&lt;a:name:id&gt;</code> are left as-is
+	 * <br>If a custom emoji has the same name as a Unicode emoji, the Unicode emoji is used
+	 * <br>Example:
+	 * <br><code>:joy: :pepe: &lt;:kekw:123&gt;</code>
+	 * <br>V
+	 * <br><code>😂 &lt;:pepe:456&gt; &lt;:kekw:123&gt;</code>
+	 *
+	 * @param str          The string with shortcode emojis to replace
+	 * @param customEmojis The registry containing the custom emojis of the guild
+	 * @param guildId      The ID of the guild the text comes from
+	 * @return A new string with the emojis shortcode replaced, or <code>str</code> if there was nothing to replace
+	 * @see #toUnicode(String)
+	 */
+	public static String toUnicode(String str, CustomEmojiRegistry customEmojis, long guildId) {
+		return toUnicode(EmojiRegistry.getDefault(), str, customEmojis.getGuild(guildId));
+	}
+
+	static String toUnicode(EmojiRegistry registry, String str, CustomEmojiRegistry.GuildEmojis guildEmojis) {
+		int open = str.indexOf(':');
+		if (open == -1) return str;
+
+		final int maxShortcodeLength = guildEmojis == null
+				? registry.getMaxShortcodeLength()
+				: Math.max(registry.getMaxShortcodeLength(), CustomEmoji.MAX_NAME_LENGTH);
+		final int length = str.length();
+
+		StringBuilder sb = null;
+		int copied = 0;
+		while (open != -1) {
+			final int close = findClosingColon(str, open + 1, length, maxShortcodeLength);
+			if (close < 0) {
+				//No closing colon for this one, the next candidate can only start after where the search stopped
+				open = str.indexOf(':', -close);
 
-		int start = 0;
-		while (matcher.find()) {
-			final String shortcode = matcher.group(1);
+				continue;
+			}
+
+			if (getCustomTokenPrefixLength(str, copied, open) > 0) {
+				final int tokenEnd = findCustomTokenEnd(str, close, length);
+				if (tokenEnd > 0) {
+					open = str.indexOf(':', tokenEnd);
 
-			sb.append(str, start, matcher.start());
+					continue;
+				}
+			}
 
-			final Emoji emoji = Emojis.ofShortcode(shortcode);
+			final Emoji emoji = registry.getByShortcode(str, open + 1, close);
+			final CustomEmoji customEmoji;
 			if (emoji != null) {
-				sb.append(emoji.unicode());
+				if (sb == null) sb = new StringBuilder(length);
+
+				final Fitzpatrick fitzpatrick = emoji.doesSupportFitzpatrick() ? findToneSuffix(str, close + 1, length) : null;
+				final int end = fitzpatrick != null ? close + 1 + Fitzpatrick.SHORTCODE_SUFFIX_LENGTH : close + 1;
+
+				sb.append(str, copied, open).append(emoji.unicode(fitzpatrick));
+				copied = end;
+
+				open = str.indexOf(':', end);
+			} else if (guildEmojis != null && (customEmoji = guildEmojis.get(str, open + 1, close)) != null) {
+				if (sb == null) sb = new StringBuilder(length + 32);
+
+				sb.append(str, copied, open).append(customEmoji.getFormatted());
+				copied = close + 1;
+
+				open = str.indexOf(':', close + 1);
 			} else {
-				sb.append(matcher.group());
+				//The closing colon may be the opening colon of a real shortcode, as in "12:30 :joy:"
+				open = close;
 			}
+		}
+
+		if (sb == null) return str;
+
+		return sb.append(str, copied, length).toString();
+	}
+
+	/**
+	 * Replaces shortcode emojis to their unicode equivalent, reading from <code>in</code> and writing the result to <code>out</code>
+	 * <br>The input is processed using a fixed size buffer, so the memory usage does not depend on the input's size
+	 * <br>Shortcodes are correctly replaced even if they are split across multiple reads
+	 * <p>
+	 * The streams are neither flushed nor closed by this method
+	 *
+	 * @param in  The source of the text with shortcode emojis to replace, such as a {@link java.io.Reader Reader}
+	 * @param out The destination of the text with the emojis shortcode replaced with their unicode, such as a {@link Writer} or a {@link StringBuilder}
+	 * @throws IOException If an I/O error occurs while reading or writing
+	 * @see #toUnicode(String)
+	 */
+	public static void toUnicode(Readable in, Appendable out) throws IOException {
+		toUnicode(EmojiRegistry.getDefault(), in, out, null);
+	}
+
+	/**
+	 * Replaces shortcode emojis to their unicode equivalent, and the shortcodes of the guild's custom emojis to their <code>&lt;:name:id&gt;</code> form,
+	 * reading from <code>in</code> and writing the result to <code>out</code>
+	 * <br>The emojis of the guild are the ones it had when this method was called, later updates of the registry are not seen
+	 * <p>
+	 * The streams are neither flushed nor closed by this method
+	 *
+	 * @param in           The source of the text with shortcode emojis to replace, such as a {@link java.io.Reader Reader}
+	 * @param out          The destination of the text with the emojis shortcode replaced, such as a {@link Writer} or a {@link StringBuilder}
+	 * @param customEmojis The registry containing the custom emojis of the guild
+	 * @param guildId      The ID of the guild the text comes from
+	 * @throws IOException If an I/O error occurs while reading or writing
+	 * @see #toUnicode(String, CustomEmojiRegistry, long)
+	 */
+	public static void toUnicode(Readable in, Appendable out, CustomEmojiRegistry customEmojis, long guildId) throws IOException {
+		toUnicode(EmojiRegistry.getDefault(), in, out, customEmojis.getGuild(guildId));
+	}
+
+	static void toUnicode(EmojiRegistry registry, Readable in, Appendable out, CustomEmojiRegistry.GuildEmojis guildEmojis) throws IOException {
+		final int maxShortcodeLength = guildEmojis == null
+				? registry.getMaxShortcodeLength()
+				: Math.max(registry.getMaxShortcodeLength(), CustomEmoji.MAX_NAME_LENGTH);
+
+		//A pending shortcode candidate, with its skin tone, must always fit in half the buffer, so that each read makes progress
+		final char[] buffer = new char[Math.max(STREAM_BUFFER_SIZE, 2 * (maxShortcodeLength + 2 + Math.max(Fitzpatrick.SHORTCODE_SUFFIX_LENGTH, CUSTOM_TOKEN_EXTRA_LENGTH)))];
+		final CharBuffer chars = CharBuffer.wrap(buffer);
+		final CharBuffer readBuffer = CharBuffer.wrap(buffer);
+
+		int filled = 0;
+		boolean endOfInput = false;
+		while (!endOfInput) {
+			readBuffer.clear().position(filled);
+			endOfInput = in.read(readBuffer) == -1;
+			filled = readBuffer.position();
+
+			final int processed = replaceShortcodes(chars, filled, endOfInput, registry, guildEmojis, maxShortcodeLength, out);
 
-			start = matcher.end();
+			//Keep the unprocessed candidate for the next read
+			System.arraycopy(buffer, processed, buffer, 0, filled - processed);
+			filled -= processed;
 		}
+	}
 
-		sb.append(str, start, str.length());
+	/**
+	 * Replaces shortcode emojis to their unicode equivalent in each message, using all the cores for large batches
+	 *
+	 * @param messages The messages with shortcode emojis to replace
+	 * @return A new list of the converted messages, in the same order
+	 * @see #toUnicode(String)
+	 */
+	public static List<String> toUnicode(List<String> messages) {
+		return toUnicode(EmojiRegistry.getDefault(), messages);
+	}
+
+	static List<String> toUnicode(EmojiRegistry registry, List<String> messages) {
+		return convertAll(messages, str -> toUnicode(registry, str, null));
+	}
+
+	/**
+	 * Replaces shortcode emojis to their unicode equivalent in a large text, using all the cores
+	 * <br>The text is split after spaces and line breaks, which cannot be part of a shortcode, and the chunks are converted with fork/join
+	 *
+	 * @param str The string with shortcode emojis to replace
+	 * @return A string with the emojis shortcode replaced with their unicode
+	 * @see #toUnicode(String)
+	 */
+	public static String toUnicodeParallel(String str) {
+		return toUnicodeParallel(EmojiRegistry.getDefault(), str);
+	}
+
+	static String toUnicodeParallel(EmojiRegistry registry, String str) {
+		return convertParallel(str, chunk -> toUnicode(registry, chunk, null));
+	}
+
+	/**
+	 * Replaces unicode emojis to their shortcode equivalent, using the first shortcode of each emoji
+	 * <br>Example:
+	 * <br><code>foo 😂 bar</code>
+	 * <br>V
+	 * <br><code>foo :joy: bar</code>
+	 * <br>Symbols which are text by default, such as <code>©</code>, are only replaced when followed by <code>U+FE0F</code>
+	 *
+	 * @param str The string with unicode emojis to replace
+	 * @return A new string with the emojis unicode replaced with their shortcode, or <code>str</code> if there was nothing to replace
+	 * @see #toShortcodes(String, ShortcodePolicy)
+	 */
+	public static String toShortcodes(String str) {
+		return toShortcodes(str, ShortcodePolicy.FIRST);
+	}
+
+	/**
+	 * Replaces unicode emojis to their shortcode equivalent
+	 * <br>The text is scanned in a single pass, picking the longest emoji at each position, so sequences such as <code>👨‍👩‍👧</code> are replaced by a single shortcode
+	 * <br>Skin tones are written as Discord does, such as <code>:thumbsup::skin-tone-3:</code>
+	 * <br>Example:
+	 * <br><code>foo 👍 bar</code>
+	 * <br>V
+	 * <br><code>foo :+1: bar</code> with {@link ShortcodePolicy#SHORTEST}
+	 *
+	 * @param str    The string with unicode emojis to replace
+	 * @param policy The policy deciding which shortcode is used when an emoji has multiple
+	 * @return A new string with the emojis unicode replaced with their shortcode, or <code>str</code> if there was nothing to replace
+	 */
+	public static String toShortcodes(String str, ShortcodePolicy policy) {
+		return toShortcodes(EmojiRegistry.getDefault(), str, policy);
+	}
+
+	static String toShortcodes(EmojiRegistry registry, String str, ShortcodePolicy policy) {
+		final UnicodeTrie trie = registry.getUnicodeTrie();
+		final UnicodeTrie.Result result = new UnicodeTrie.Result();
+		final int length = str.length();
+
+		StringBuilder sb = null;
+		int copied = 0;
+		for (int i = trie.skipToStartChar(str, 0, length); i < length; i = trie.skipToStartChar(str, i, length)) {
+			if (trie.match(str, i, length, result)) {
+				final String shortcode = policy.getShortcode(registry.getShortcodes(result.emoji));
+				if (shortcode != null) {
+					if (sb == null) sb = new StringBuilder(length + 16);
+
+					sb.append(str, copied, i).append(':').append(shortcode).append(':');
+					if (result.fitzpatrick != null) {
+						sb.append(':').append(result.fitzpatrick.getShortcode()).append(':');
+					}
+					copied = result.end;
+				}
+
+				i = result.end;
+			} else {
+				i += Character.charCount(str.codePointAt(i));
+			}
+		}
+
+		if (sb == null) return str;
+
+		return sb.append(str, copied, length).toString();
+	}
+
+	/**
+	 * Replaces unicode emojis to their shortcode equivalent in each message, using the first shortcode of each emoji, and all the cores for large batches
+	 *
+	 * @param messages The messages with unicode emojis to replace
+	 * @return A new list of the converted messages, in the same order
+	 * @see #toShortcodes(String)
+	 */
+	public static List<String> toShortcodes(List<String> messages) {
+		return toShortcodes(messages, ShortcodePolicy.FIRST);
+	}
+
+	/**
+	 * Replaces unicode emojis to their shortcode equivalent in each message, using all the cores for large batches
+	 *
+	 * @param messages The messages with unicode emojis to replace
+	 * @param policy   The policy deciding which shortcode is used when an emoji has multiple
+	 * @return A new list of the converted messages, in the same order
+	 * @see #toShortcodes(String, ShortcodePolicy)
+	 */
+	public static List<String> toShortcodes(List<String> messages, ShortcodePolicy policy) {
+		return toShortcodes(EmojiRegistry.getDefault(), messages, policy);
+	}
+
+	static List<String> toShortcodes(EmojiRegistry registry, List<String> messages, ShortcodePolicy policy) {
+		return convertAll(messages, str -> toShortcodes(registry, str, policy));
+	}
+
+	/**
+	 * Replaces unicode emojis to their shortcode equivalent in a large text, using the first shortcode of each emoji, and all the cores
+	 *
+	 * @param str The string with unicode emojis to replace
+	 * @return A string with the emojis unicode replaced with their shortcode
+	 * @see #toShortcodesParallel(String, ShortcodePolicy)
+	 */
+	public static String toShortcodesParallel(String str) {
+		return toShortcodesParallel(str, ShortcodePolicy.FIRST);
+	}
+
+	/**
+	 * Replaces unicode emojis to their shortcode equivalent in a large text, using all the cores
+	 * <br>The text is split after spaces and line breaks, which cannot be part of an emoji sequence, and the chunks are converted with fork/join
+	 *
+	 * @param str    The string with unicode emojis to replace
+	 * @param policy The policy deciding which shortcode is used when an emoji has multiple
+	 * @return A string with the emojis unicode replaced with their shortcode
+	 * @see #toShortcodes(String, ShortcodePolicy)
+	 */
+	public static String toShortcodesParallel(String str, ShortcodePolicy policy) {
+		return toShortcodesParallel(EmojiRegistry.getDefault(), str, policy);
+	}
+
+	static String toShortcodesParallel(EmojiRegistry registry, String str, ShortcodePolicy policy) {
+		return convertParallel(str, chunk -> toShortcodes(registry, chunk, policy));
+	}
+
+	/**
+	 * Removes the unicode emojis of the text, the text around them is kept as-is
+	 * <br>Example:
+	 * <br><code>EmojiParser.stripEmojis("I'm \uD83D\uDE02!")</code> -> <code>I'm !</code>
+	 *
+	 * @param str The string with unicode emojis to remove
+	 * @return A new string without the emojis, or <code>str</code> if there was nothing to remove
+	 * @see #extractEmojis(String)
+	 */
+	public static String stripEmojis(String str) {
+		return stripEmojis(EmojiRegistry.getDefault(), str);
+	}
+
+	static String stripEmojis(EmojiRegistry registry, String str) {
+		final UnicodeTrie trie = registry.getUnicodeTrie();
+		final UnicodeTrie.Result result = new UnicodeTrie.Result();
+		final int length = str.length();
+
+		StringBuilder sb = null;
+		int copied = 0;
+		for (int i = trie.skipToStartChar(str, 0, length); i < length; i = trie.skipToStartChar(str, i, length)) {
+			if (trie.match(str, i, length, result)) {
+				if (sb == null) sb = new StringBuilder(length);
+
+				sb.append(str, copied, i);
+				copied = result.end;
+
+				i = result.end;
+			} else {
+				i += Character.charCount(str.codePointAt(i));
+			}
+		}
+
+		if (sb == null) return str;
+
+		return sb.append(str, copied, length).toString();
+	}
+
+	/**
+	 * Keeps only the unicode emojis of the text, in order of appearance
+	 * <br>Example:
+	 * <br><code>EmojiParser.extractEmojis("I'm \uD83D\uDE02, \uD83D\uDC4D")</code> -> <code>\uD83D\uDE02\uD83D\uDC4D</code>
+	 *
+	 * @param str The string to take the unicode emojis from
+	 * @return A new string with only the emojis, empty if there was none
+	 * @see #stripEmojis(String)
+	 * @see Emojis#findAll(CharSequence)
+	 */
+	public static String extractEmojis(String str) {
+		return extractEmojis(EmojiRegistry.getDefault(), str);
+	}
+
+	static String extractEmojis(EmojiRegistry registry, String str) {
+		final UnicodeTrie trie = registry.getUnicodeTrie();
+		final UnicodeTrie.Result result = new UnicodeTrie.Result();
+		final int length = str.length();
+
+		final StringBuilder sb = new StringBuilder();
+		for (int i = trie.skipToStartChar(str, 0, length); i < length; i = trie.skipToStartChar(str, i, length)) {
+			if (trie.match(str, i, length, result)) {
+				sb.append(str, i, result.end);
+
+				i = result.end;
+			} else {
+				i += Character.charCount(str.codePointAt(i));
+			}
+		}
 
 		return sb.toString();
 	}
-}
\ No newline at end of file
+
+	private static List<String> convertAll(List<String> messages, UnaryOperator<String> converter) {
+		final Stream<String> stream = messages.size() < PARALLEL_BATCH_THRESHOLD ? messages.stream() : messages.parallelStream();
+
+		return stream.map(converter).collect(Collectors.toList());
+	}
+
+	private static String convertParallel(String str, UnaryOperator<String> converter) {
+		if (str.length() < 2 * MIN_PARALLEL_CHUNK_SIZE) return converter.apply(str);
+
+		return StreamSupport.stream(new TextChunkSpliterator(str, MIN_PARALLEL_CHUNK_SIZE), true)
+				.map(converter)
+				.collect(Collectors.joining());
+	}
+
+	/**
+	 * Replaces the shortcodes in the first <code>length</code> chars of the buffer, and writes the result
+	 *
+	 * @return The number of chars which have been processed, the remaining ones are the start of a shortcode candidate which needs more input
+	 */
+	private static int replaceShortcodes(CharBuffer chars, int length, boolean endOfInput, EmojiRegistry registry, CustomEmojiRegistry.GuildEmojis guildEmojis, int maxLength, Appendable out) throws IOException {
+		int copied = 0;
+		int open = indexOf(chars, ':', 0, length);
+		while (open != -1) {
+			final int close = findClosingColon(chars, open + 1, length, maxLength);
+			if (close < 0) {
+				if (!endOfInput && -close == length && length - open <= maxLength + 1) {
+					//The candidate might be closed by the next read, keep what may be the start of a custom emoji token with it
+					final int pending = open - getCustomTokenPrefixLength(chars, copied, open);
+					write(out, chars, copied, pending);
+
+					return pending;
+				}
+
+				open = indexOf(chars, ':', -close, length);
+
+				continue;
+			}
+
+			final int tokenPrefixLength = getCustomTokenPrefixLength(chars, copied, open);
+			if (tokenPrefixLength > 0) {
+				final int tokenEnd = findCustomTokenEnd(chars, close, length);
+				if (tokenEnd == INCOMPLETE_TOKEN && !endOfInput) {
+					//The rest of the ID might be in the next read
+					write(out, chars, copied, open - tokenPrefixLength);
+
+					return open - tokenPrefixLength;
+				} else if (tokenEnd > 0) {
+					open = indexOf(chars, ':', tokenEnd, length);
+
+					continue;
+				}
+			}
+
+			final Emoji emoji = registry.getByShortcode(chars, open + 1, close);
+			final CustomEmoji customEmoji;
+			if (emoji != null) {
+				Fitzpatrick fitzpatrick = null;
+				if (emoji.doesSupportFitzpatrick()) {
+					if (!endOfInput && length - (close + 1) < Fitzpatrick.SHORTCODE_SUFFIX_LENGTH && (close + 1 == length || chars.charAt(close + 1) == ':')) {
+						//The skin tone might be in the next read
+						write(out, chars, copied, open);
+
+						return open;
+					}
+
+					fitzpatrick = findToneSuffix(chars, close + 1, length);
+				}
+				final int end = fitzpatrick != null ? close + 1 + Fitzpatrick.SHORTCODE_SUFFIX_LENGTH : close + 1;
+
+				write(out, chars, copied, open);
+				out.append(emoji.unicode(fitzpatrick));
+				copied = end;
+
+				open = indexOf(chars, ':', end, length);
+			} else if (guildEmojis != null && (customEmoji = guildEmojis.get(chars, open + 1, close)) != null) {
+				write(out, chars, copied, open);
+				out.append(customEmoji.getFormatted());
+				copied = close + 1;
+
+				open = indexOf(chars, ':', close + 1, length);
+			} else {
+				open = close;
+			}
+		}
+
+		//Keep what may be the start of a custom emoji token, so the next read can see it
+		int processed = length;
+		if (!endOfInput) {
+			if (processed > copied && chars.charAt(processed - 1) == '<') {
+				processed--;
+			} else if (processed - 1 > copied && chars.charAt(processed - 1) == 'a' && chars.charAt(processed - 2) == '<') {
+				processed -= 2;
+			}
+		}
+
+		write(out, chars, copied, processed);
+
+		return processed;
+	}
+
+	/**
+	 * Returns the length of what precedes the colon at <code>open</code> if it starts a custom emoji token, as in <code>&lt;:name:id&gt;</code> and <code>&lt;a:name:id&gt;</code>
+	 *
+	 * @return <code>1</code> for <code>&lt;</code>, <code>2</code> for <code>&lt;a</code>, or <code>0</code> if this is not a custom emoji token
+	 */
+	static int getCustomTokenPrefixLength(CharSequence text, int from, int open) {
+		if (open - 1 >= from && text.charAt(open - 1) == '<') {
+			return 1;
+		} else if (open - 2 >= from && text.charAt(open - 1) == 'a' && text.charAt(open - 2) == '<') {
+			return 2;
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Reads the <code>id&gt;</code> part of a custom emoji token
+	 *
+	 * @param close The index of the colon following the name
+	 * @return The index after the <code>&gt;</code>, {@link #INCOMPLETE_TOKEN} if the text ends before the token could end,
+	 * or <code>-1</code> if this is not a custom emoji token
+	 */
+	static int findCustomTokenEnd(CharSequence text, int close, int length) {
+		final int limit = Math.min(length, close + 1 + MAX_ID_DIGITS + 1);
+
+		for (int i = close + 1; i < limit; i++) {
+			final char c = text.charAt(i);
+			if (c == '>') {
+				return i > close + 1 ? i + 1 : -1;
+			} else if (c < '0' || c > '9') {
+				return -1;
+			}
+		}
+
+		return limit == length ? INCOMPLETE_TOKEN : -1;
+	}
+
+	/**
+	 * Reads the <code>:skin-tone-N:</code> shortcode which may follow a shortcode
+	 *
+	 * @return The skin tone, or <code>null</code> if there is none at <code>from</code>
+	 */
+	static Fitzpatrick findToneSuffix(CharSequence text, int from, int length) {
+		final int end = from + Fitzpatrick.SHORTCODE_SUFFIX_LENGTH;
+		if (end > length || text.charAt(from) != ':' || text.charAt(end - 1) != ':') return null;
+
+		return Fitzpatrick.ofShortcode(text, from + 1);
+	}
+
+	private static void write(Appendable out, CharBuffer chars, int start, int end) throws IOException {
+		if (start == end) return;
+
+		if (out instanceof Writer) {
+			((Writer) out).write(chars.array(), start, end - start);
+		} else {
+			out.append(chars, start, end);
+		}
+	}
+
+	private static int indexOf(CharSequence text, char c, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (text.charAt(i) == c) return i;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Finds the colon closing a shortcode candidate
+	 * <br>Shortcodes cannot contain spaces, line breaks or other control chars, the search stops at the first one,
+	 * so a candidate never spans the chunks of {@link TextChunkSpliterator}, whatever shortcodes the registry has
+	 *
+	 * @return The index of the closing colon,
+	 * or the negated index at which the search can resume if the candidate cannot be a shortcode
+	 */
+	static int findClosingColon(CharSequence text, int from, int length, int maxShortcodeLength) {
+		final int limit = Math.min(length, from + maxShortcodeLength + 1);
+
+		for (int i = from; i < limit; i++) {
+			final char c = text.charAt(i);
+			if (c == ':') {
+				return i;
+			} else if (c <= ' ') {
+				return -(i + 1);
+			}
+		}
+
+		return -limit;
+	}
+}
@@ -0,0 +1,352 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A set of emojis along with their lookup indexes, which parsing methods are bound to
+ * <br>Registries are either:
+ * <ul>
+ *     <li>The {@link #getDefault() default registry}, backed by {@link Emojis}</li>
+ *     <li>{@link #load(Path) Loaded} from a JSON file, which can be reloaded</li>
+ *     <li>An {@link #overlay(Map) overlay} of another registry, adding shortcode aliases while sharing the emojis of its base</li>
+ * </ul>
+ * All registries are thread safe
+ *
+ * @see EmojiParser
+ */
+public abstract class EmojiRegistry {
+	EmojiRegistry() {}
+
+	/**
+	 * Returns the registry of the bundled emojis, which uses the same emojis and indexes as {@link Emojis} and {@link EmojiParser}
+	 *
+	 * @return The default registry
+	 */
+	@NotNull
+	public static EmojiRegistry getDefault() {
+		return BundledEmojiRegistry.INSTANCE;
+	}
+
+	/**
+	 * Loads a registry from a JSON emoji store
+	 *
+	 * @param path The path of the JSON file
+	 * @return The loaded registry
+	 * @throws IOException If the file does not exist or could not be read
+	 * @see EmojiStore#save(Path)
+	 */
+	@NotNull
+	public static ReloadableEmojiRegistry load(@NotNull Path path) throws IOException {
+		return ReloadableEmojiRegistry.loadFrom(path);
+	}
+
+	/**
+	 * Creates a registry which adds shortcode aliases to this one, such as a Slack or a GitHub dialect
+	 * <br>The overlay shares the emojis of this registry, and only holds its aliases, so creating many overlays is cheap
+	 * <br>Aliases are preferred over the shortcodes of this registry when converting to shortcodes,
+	 * they are resolved again if this registry is reloaded, aliases whose target disappeared are ignored
+	 *
+	 * @param aliases The new shortcodes, mapped to an existing shortcode of this registry, both without <code>:</code>
+	 * @return The overlay registry
+	 * @throws IllegalArgumentException If an alias contains <code>:</code> or whitespace, or if its target is not a shortcode of this registry
+	 */
+	@NotNull
+	public EmojiRegistry overlay(@NotNull Map<String, String> aliases) {
+		return new OverlayEmojiRegistry(this, aliases);
+	}
+
+	/**
+	 * Returns the emojis of this registry, in their ID order
+	 *
+	 * @return An unmodifiable set of the emojis
+	 */
+	@NotNull
+	public abstract Set<Emoji> getEmojis();
+
+	/**
+	 * Retrieves an {@link Emoji} by its ID
+	 *
+	 * @param id The ID of the emoji, from <code>0</code> to the number of emojis (exclusive)
+	 * @return The {@link Emoji} with this ID, or <code>null</code> if the ID is out of range
+	 */
+	@Nullable
+	public abstract Emoji byId(int id);
+
+	/**
+	 * Retrieves an {@link Emoji} with the matching Unicode
+	 *
+	 * @param unicode The Unicode emoji to find
+	 * @return An {@link Emoji} with the matching unicode, or <code>null</code> if not found
+	 * @see Emojis#ofUnicode(String)
+	 */
+	@Nullable
+	public Emoji ofUnicode(@NotNull String unicode) {
+		return getUnicodeTrie().get(unicode);
+	}
+
+	/**
+	 * Retrieves an {@link Emoji} with the matching Unicode and its skin tone
+	 *
+	 * @param unicode The Unicode emoji to find, with or without skin tone
+	 * @return A {@link TonedEmoji} with the base emoji and its skin tone, or <code>null</code> if not found
+	 * @see Emojis#ofTonedUnicode(String)
+	 */
+	@Nullable
+	public TonedEmoji ofTonedUnicode(@NotNull String unicode) {
+		return getUnicodeTrie().getToned(unicode);
+	}
+
+	/**
+	 * Retrieves an {@link Emoji} with the matching shortcode
+	 *
+	 * @param shortcode The shortcode emoji to find, with or without <code>:</code>
+	 * @return An {@link Emoji} with the matching shortcode, or <code>null</code> if not found
+	 * @see Emojis#ofShortcode(String)
+	 */
+	@Nullable
+	public Emoji ofShortcode(@NotNull String shortcode) {
+		final int length = shortcode.length();
+		if (length > 2 && shortcode.charAt(0) == ':' && shortcode.charAt(length - 1) == ':') {
+			return getByShortcode(shortcode, 1, length - 1);
+		} else {
+			return getByShortcode(shortcode, 0, length);
+		}
+	}
+
+	/**
+	 * Finds all the Unicode emojis in the specified text, in a single pass
+	 *
+	 * @param text The text to search emojis in
+	 * @return The emojis found in the text along with their position, in order of appearance
+	 * @see Emojis#findAll(CharSequence)
+	 */
+	@NotNull
+	public List<EmojiMatch> findAll(@NotNull CharSequence text) {
+		return getUnicodeTrie().findAll(text);
+	}
+
+	/**
+	 * Creates a cursor splitting the text into Unicode emoji segments and plain text segments
+	 *
+	 * @param text The text to segment
+	 * @return A new segmenter, positioned before the first segment
+	 * @see #segment(CharSequence, boolean)
+	 */
+	@NotNull
+	public EmojiSegmenter segment(@NotNull CharSequence text) {
+		return new EmojiSegmenter(this, text, false);
+	}
+
+	/**
+	 * Creates a cursor splitting the text into emoji segments and plain text segments
+	 *
+	 * @param text       The text to segment
+	 * @param shortcodes <code>true</code> if shortcodes of this registry, such as <code>:joy:</code>, are also emoji segments
+	 * @return A new segmenter, positioned before the first segment
+	 */
+	@NotNull
+	public EmojiSegmenter segment(@NotNull CharSequence text, boolean shortcodes) {
+		return new EmojiSegmenter(this, text, shortcodes);
+	}
+
+	/**
+	 * Counts the Unicode emojis in the text, without allocating a match for each of them
+	 *
+	 * @param text The text to count emojis in
+	 * @return The number of emojis, an emoji sequence such as <code>👨‍👩‍👧</code> counts as one
+	 */
+	public int countEmojis(@NotNull CharSequence text) {
+		return new EmojiSegmenter(this, text, false).countEmojis();
+	}
+
+	/**
+	 * Replaces shortcode emojis of this registry to their unicode equivalent
+	 *
+	 * @param str The string with shortcode emojis to replace
+	 * @return A new string with the emojis shortcode replaced with their unicode, or <code>str</code> if there was nothing to replace
+	 * @see EmojiParser#toUnicode(String)
+	 */
+	@NotNull
+	public String toUnicode(@NotNull String str) {
+		return EmojiParser.toUnicode(this, str, null);
+	}
+
+	/**
+	 * Replaces shortcode emojis of this registry to their unicode equivalent, and the shortcodes of the guild's custom emojis to their <code>&lt;:name:id&gt;</code> form
+	 *
+	 * @param str          The string with shortcode emojis to replace
+	 * @param customEmojis The registry containing the custom emojis of the guild
+	 * @param guildId      The ID of the guild the text comes from
+	 * @return A new string with the emojis shortcode replaced, or <code>str</code> if there was nothing to replace
+	 * @see EmojiParser#toUnicode(String, CustomEmojiRegistry, long)
+	 */
+	@NotNull
+	public String toUnicode(@NotNull String str, @NotNull CustomEmojiRegistry customEmojis, long guildId) {
+		return EmojiParser.toUnicode(this, str, customEmojis.getGuild(guildId));
+	}
+
+	/**
+	 * Replaces shortcode emojis of this registry to their unicode equivalent, reading from <code>in</code> and writing the result to <code>out</code>
+	 *
+	 * @param in  The source of the text with shortcode emojis to replace
+	 * @param out The destination of the text with the emojis shortcode replaced with their unicode
+	 * @throws IOException If an I/O error occurs while reading or writing
+	 * @see EmojiParser#toUnicode(Readable, Appendable)
+	 */
+	public void toUnicode(@NotNull Readable in, @NotNull Appendable out) throws IOException {
+		EmojiParser.toUnicode(this, in, out, null);
+	}
+
+	/**
+	 * Replaces shortcode emojis of this registry to their unicode equivalent, and the shortcodes of the guild's custom emojis to their <code>&lt;:name:id&gt;</code> form,
+	 * reading from <code>in</code> and writing the result to <code>out</code>
+	 *
+	 * @param in           The source of the text with shortcode emojis to replace
+	 * @param out          The destination of the text with the emojis shortcode replaced
+	 * @param customEmojis The registry containing the custom emojis of the guild
+	 * @param guildId      The ID of the guild the text comes from
+	 * @throws IOException If an I/O error occurs while reading or writing
+	 * @see EmojiParser#toUnicode(Readable, Appendable, CustomEmojiRegistry, long)
+	 */
+	public void toUnicode(@NotNull Readable in, @NotNull Appendable out, @NotNull CustomEmojiRegistry customEmojis, long guildId) throws IOException {
+		EmojiParser.toUnicode(this, in, out, customEmojis.getGuild(guildId));
+	}
+
+	/**
+	 * Replaces shortcode emojis of this registry to their unicode equivalent in each message, using all the cores for large batches
+	 *
+	 * @param messages The messages with shortcode emojis to replace
+	 * @return A new list of the converted messages, in the same order
+	 * @see EmojiParser#toUnicode(List)
+	 */
+	@NotNull
+	public List<String> toUnicode(@NotNull List<String> messages) {
+		return EmojiParser.toUnicode(this, messages);
+	}
+
+	/**
+	 * Replaces shortcode emojis of this registry to their unicode equivalent in a large text, using all the cores
+	 *
+	 * @param str The string with shortcode emojis to replace
+	 * @return A string with the emojis shortcode replaced with their unicode
+	 * @see EmojiParser#toUnicodeParallel(String)
+	 */
+	@NotNull
+	public String toUnicodeParallel(@NotNull String str) {
+		return EmojiParser.toUnicodeParallel(this, str);
+	}
+
+	/**
+	 * Replaces unicode emojis to their shortcode equivalent in this registry, using the first shortcode of each emoji
+	 *
+	 * @param str The string with unicode emojis to replace
+	 * @return A new string with the emojis unicode replaced with their shortcode, or <code>str</code> if there was nothing to replace
+	 * @see EmojiParser#toShortcodes(String)
+	 */
+	@NotNull
+	public String toShortcodes(@NotNull String str) {
+		return EmojiParser.toShortcodes(this, str, ShortcodePolicy.FIRST);
+	}
+
+	/**
+	 * Replaces unicode emojis to their shortcode equivalent in this registry
+	 *
+	 * @param str    The string with unicode emojis to replace
+	 * @param policy The policy deciding which shortcode is used when an emoji has multiple
+	 * @return A new string with the emojis unicode replaced with their shortcode, or <code>str</code> if there was nothing to replace
+	 * @see EmojiParser#toShortcodes(String, ShortcodePolicy)
+	 */
+	@NotNull
+	public String toShortcodes(@NotNull String str, @NotNull ShortcodePolicy policy) {
+		return EmojiParser.toShortcodes(this, str, policy);
+	}
+
+	/**
+	 * Replaces unicode emojis to their shortcode equivalent in this registry in each message, using all the cores for large batches
+	 *
+	 * @param messages The messages with unicode emojis to replace
+	 * @param policy   The policy deciding which shortcode is used when an emoji has multiple
+	 * @return A new list of the converted messages, in the same order
+	 * @see EmojiParser#toShortcodes(List, ShortcodePolicy)
+	 */
+	@NotNull
+	public List<String> toShortcodes(@NotNull List<String> messages, @NotNull ShortcodePolicy policy) {
+		return EmojiParser.toShortcodes(this, messages, policy);
+	}
+
+	/**
+	 * Replaces unicode emojis to their shortcode equivalent in this registry in a large text, using all the cores
+	 *
+	 * @param str    The string with unicode emojis to replace
+	 * @param policy The policy deciding which shortcode is used when an emoji has multiple
+	 * @return A string with the emojis unicode replaced with their shortcode
+	 * @see EmojiParser#toShortcodesParallel(String, ShortcodePolicy)
+	 */
+	@NotNull
+	public String toShortcodesParallel(@NotNull String str, @NotNull ShortcodePolicy policy) {
+		return EmojiParser.toShortcodesParallel(this, str, policy);
+	}
+
+	/**
+	 * Removes the unicode emojis of this registry from the text, the text around them is kept as-is
+	 *
+	 * @param str The string with unicode emojis to remove
+	 * @return A new string without the emojis, or <code>str</code> if there was nothing to remove
+	 * @see EmojiParser#stripEmojis(String)
+	 */
+	@NotNull
+	public String stripEmojis(@NotNull String str) {
+		return EmojiParser.stripEmojis(this, str);
+	}
+
+	/**
+	 * Keeps only the unicode emojis of this registry from the text, in order of appearance
+	 *
+	 * @param str The string to take the unicode emojis from
+	 * @return A new string with only the emojis, empty if there was none
+	 * @see EmojiParser#extractEmojis(String)
+	 */
+	@NotNull
+	public String extractEmojis(@NotNull String str) {
+		return EmojiParser.extractEmojis(this, str);
+	}
+
+	@NotNull
+	abstract UnicodeTrie getUnicodeTrie();
+
+	/**
+	 * Retrieves the emoji associated with the shortcode located between <code>start</code> and <code>end</code> in the text
+	 *
+	 * @return The associated emoji, or <code>null</code> if none is associated
+	 */
+	@Nullable
+	abstract Emoji getByShortcode(@NotNull CharSequence text, int start, int end);
+
+	/**
+	 * Returns the length of the longest shortcode of this registry
+	 */
+	abstract int getMaxShortcodeLength();
+
+	/**
+	 * Returns the shortcodes of the emoji in this registry, in order of preference
+	 */
+	@NotNull
+	List<String> getShortcodes(@NotNull Emoji emoji) {
+		return emoji.shortcodes();
+	}
+
+	/**
+	 * Returns an object which changes whenever the emojis of this registry are replaced, so overlays know when to resolve their aliases again
+	 */
+	@NotNull
+	Object getVersion() {
+		return this;
+	}
+}
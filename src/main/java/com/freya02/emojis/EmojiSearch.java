@@ -0,0 +1,321 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Typo tolerant search of emojis by shortcode or by name, such as <code>thumsup</code> finding <code>thumbsup</code>
+ * <br>The names are the Emojipedia names, derived from the subpages of the emojis, so no network access is needed
+ * <p>
+ * Shortcodes and names are folded into search keys, in lowercase, without accents, and with words separated by single spaces.
+ * <br>Keys sharing trigrams with the query are candidates, which are then ranked by:
+ * <ol>
+ *     <li>Exact matches</li>
+ *     <li>Keys starting with the query</li>
+ *     <li>Keys with a word starting with the query</li>
+ *     <li>Keys within a small edit distance of the query, closest first</li>
+ * </ol>
+ * Ties are broken by the key length, shortest first
+ * <br>Only the keys sharing trigrams with the query are scored, the other keys are never visited
+ * <br>A search index is a snapshot of its registry, it is immutable and thread safe
+ *
+ * @see #getDefault()
+ * @see #of(EmojiRegistry)
+ */
+public final class EmojiSearch {
+	private static final int MAX_QUERY_LENGTH = 64;
+
+	private static final int SCORE_EXACT = 0;
+	private static final int SCORE_PREFIX = 1;
+	private static final int SCORE_WORD_PREFIX = 2;
+	private static final int SCORE_EDIT_DISTANCE = 3; //Plus the distance
+
+	private final Emoji[] emojis;
+	private final String[] keys;
+	private final int[] keyOwners; //Index of the emoji of each key
+
+	//Sorted unique trigrams, the keys containing trigrams[i] are postings[postingOffsets[i]] to postings[postingOffsets[i + 1]]
+	private final long[] trigrams;
+	private final int[] postingOffsets;
+	private final int[] postings;
+
+	//Per thread counters of the shared trigrams of each key, only the keys hit by a query are touched, and reset after it
+	private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(this::createScratch);
+
+	private EmojiSearch(Emoji[] emojis, List<String> keys, List<Integer> keyOwners) {
+		this.emojis = emojis;
+		this.keys = keys.toArray(new String[0]);
+		this.keyOwners = keyOwners.stream().mapToInt(Integer::intValue).toArray();
+
+		final long[][] keyTrigrams = new long[this.keys.length][];
+		int postingCount = 0;
+		for (int i = 0; i < this.keys.length; i++) {
+			keyTrigrams[i] = Arrays.stream(getTrigrams(this.keys[i])).distinct().toArray();
+			postingCount += keyTrigrams[i].length;
+		}
+
+		this.trigrams = Arrays.stream(keyTrigrams).flatMapToLong(Arrays::stream).sorted().distinct().toArray();
+
+		//Count the keys of each trigram, then turn the counts into offsets, and fill the postings in key order
+		this.postingOffsets = new int[trigrams.length + 1];
+		for (long[] trigramsOfKey : keyTrigrams) {
+			for (long trigram : trigramsOfKey) {
+				postingOffsets[Arrays.binarySearch(trigrams, trigram) + 1]++;
+			}
+		}
+		for (int i = 0; i < trigrams.length; i++) {
+			postingOffsets[i + 1] += postingOffsets[i];
+		}
+
+		this.postings = new int[postingCount];
+		final int[] filled = Arrays.copyOf(postingOffsets, trigrams.length);
+		for (int i = 0; i < keyTrigrams.length; i++) {
+			for (long trigram : keyTrigrams[i]) {
+				postings[filled[Arrays.binarySearch(trigrams, trigram)]++] = i;
+			}
+		}
+	}
+
+	/**
+	 * Returns the search index of the bundled emojis
+	 *
+	 * @return The search index of the default registry
+	 */
+	@NotNull
+	public static EmojiSearch getDefault() {
+		return DefaultHolder.search;
+	}
+
+	/**
+	 * Creates a search index of the shortcodes and names of all the emojis of the registry
+	 * <br>The index does not see changes made to the registry after this call
+	 *
+	 * @param registry The registry to take the emojis from
+	 * @return A new search index
+	 */
+	@NotNull
+	public static EmojiSearch of(@NotNull EmojiRegistry registry) {
+		final Emoji[] emojis = registry.getEmojis().toArray(new Emoji[0]);
+		final List<String> keys = new ArrayList<>(emojis.length * 3);
+		final List<Integer> keyOwners = new ArrayList<>(emojis.length * 3);
+
+		for (int i = 0; i < emojis.length; i++) {
+			final Emoji emoji = emojis[i];
+			final int firstKey = keys.size();
+			for (String shortcode : registry.getShortcodes(emoji)) {
+				keys.add(toKey(shortcode));
+				keyOwners.add(i);
+			}
+
+			//Emojipedia names are their subpages with spaces, such as "smiling-face-with-halo", skip them if a shortcode of the emoji is the same
+			final String name = toKey(emoji.subpage());
+			if (!name.isEmpty() && !keys.subList(firstKey, keys.size()).contains(name)) {
+				keys.add(name);
+				keyOwners.add(i);
+			}
+		}
+
+		return new EmojiSearch(emojis, keys, keyOwners);
+	}
+
+	/**
+	 * Finds the emojis best matching the query
+	 *
+	 * @param query The shortcode or name to search, with or without <code>:</code>, accents and case are ignored
+	 * @param limit The maximum number of emojis to return
+	 * @return The matching emojis, best first
+	 * @throws IllegalArgumentException If <code>limit</code> is negative
+	 */
+	@NotNull
+	public List<Emoji> search(@NotNull String query, int limit) {
+		if (limit < 0) throw new IllegalArgumentException("Limit cannot be negative: " + limit);
+
+		final String key = toKey(query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query);
+		if (key.isEmpty() || limit == 0) return List.of();
+
+		//Count the trigrams the keys of the posting lists share with the query, only these keys are visited
+		final long[] queryTrigrams = getTrigrams(key);
+		final Scratch scratch = this.scratch.get();
+		final int[] sharedTrigrams = scratch.sharedTrigrams;
+		final int[] hitKeys = scratch.hitKeys;
+		int hitCount = 0;
+		for (long trigram : queryTrigrams) {
+			final int index = Arrays.binarySearch(trigrams, trigram);
+			if (index < 0) continue;
+
+			for (int i = postingOffsets[index]; i < postingOffsets[index + 1]; i++) {
+				if (sharedTrigrams[postings[i]]++ == 0) hitKeys[hitCount++] = postings[i];
+			}
+		}
+
+		//Each edit changes at most 3 trigrams
+		final int maxEdits = key.length() <= 4 ? 1 : 2;
+		final int minSharedTrigrams = Math.max(1, queryTrigrams.length - 3 * maxEdits);
+
+		final long[] candidates = new long[hitCount];
+		int candidateCount = 0;
+		for (int i = 0; i < hitCount; i++) {
+			final int keyIndex = hitKeys[i];
+			final int shared = sharedTrigrams[keyIndex];
+			sharedTrigrams[keyIndex] = 0; //Leave the scratch clean for the next query
+
+			if (shared < minSharedTrigrams) continue;
+
+			final int score = getScore(key, keys[keyIndex], maxEdits);
+			if (score < 0) continue;
+
+			//Scores are compared first, then the key length, then the emoji order
+			final int rankedScore = score * 1024 + Math.min(keys[keyIndex].length(), 1023);
+			candidates[candidateCount++] = ((long) rankedScore << 32) | keyOwners[keyIndex];
+		}
+		Arrays.sort(candidates, 0, candidateCount);
+
+		//The first key of each emoji is its best one
+		final List<Emoji> result = new ArrayList<>(Math.min(limit, candidateCount));
+		final boolean[] seenEmojis = scratch.seenEmojis;
+		int visited = 0;
+		for (; visited < candidateCount && result.size() < limit; visited++) {
+			final int owner = (int) candidates[visited];
+			if (!seenEmojis[owner]) {
+				seenEmojis[owner] = true;
+				result.add(emojis[owner]);
+			}
+		}
+
+		//Leave the scratch clean for the next query
+		for (int i = 0; i < visited; i++) {
+			seenEmojis[(int) candidates[i]] = false;
+		}
+
+		return result;
+	}
+
+	private Scratch createScratch() {
+		return new Scratch(keys.length, emojis.length);
+	}
+
+	/**
+	 * @return The score of the key for this query, lower is better, or <code>-1</code> if it does not match
+	 */
+	private static int getScore(String query, String key, int maxEdits) {
+		if (key.equals(query)) return SCORE_EXACT;
+		if (key.startsWith(query)) return SCORE_PREFIX;
+
+		for (int i = key.indexOf(' '); i != -1; i = key.indexOf(' ', i + 1)) {
+			if (key.startsWith(query, i + 1)) return SCORE_WORD_PREFIX;
+		}
+
+		final int distance = getEditDistance(query, key, maxEdits);
+		if (distance > maxEdits) return -1;
+
+		return SCORE_EDIT_DISTANCE + distance;
+	}
+
+	/**
+	 * Computes the optimal string alignment distance, which counts insertions, deletions, substitutions and transpositions
+	 *
+	 * @return The distance, or any value above <code>maxDistance</code> if the distance is larger
+	 */
+	private static int getEditDistance(String a, String b, int maxDistance) {
+		final int lengthA = a.length(), lengthB = b.length();
+		if (Math.abs(lengthA - lengthB) > maxDistance) return maxDistance + 1;
+
+		int[] previousPrevious = new int[lengthB + 1];
+		int[] previous = new int[lengthB + 1];
+		int[] current = new int[lengthB + 1];
+		for (int j = 0; j <= lengthB; j++) {
+			previous[j] = j;
+		}
+
+		for (int i = 1; i <= lengthA; i++) {
+			current[0] = i;
+
+			int rowMin = current[0];
+			for (int j = 1; j <= lengthB; j++) {
+				final int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+
+				int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+				if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+					distance = Math.min(distance, previousPrevious[j - 2] + 1);
+				}
+
+				current[j] = distance;
+				rowMin = Math.min(rowMin, distance);
+			}
+
+			//No alignment can get back under the limit
+			if (rowMin > maxDistance) return maxDistance + 1;
+
+			final int[] recycled = previousPrevious;
+			previousPrevious = previous;
+			previous = current;
+			current = recycled;
+		}
+
+		return previous[lengthB];
+	}
+
+	/**
+	 * Returns the trigrams of the key, padded with spaces so the start and the end of the key are also trigrams
+	 */
+	private static long[] getTrigrams(String key) {
+		final String padded = ' ' + key + ' ';
+		final long[] result = new long[padded.length() - 2];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Folds the text into a search key, in lowercase, without accents, and with words separated by single spaces
+	 */
+	static String toKey(String text) {
+		boolean ascii = true;
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) >= 0x80) {
+				ascii = false;
+				break;
+			}
+		}
+
+		final String folded = (ascii ? text : StringUtils.normalize(text)).toLowerCase(Locale.ROOT);
+
+		final StringBuilder sb = new StringBuilder(folded.length());
+		for (int i = 0; i < folded.length(); i++) {
+			final char c = folded.charAt(i);
+			if (Character.isLetterOrDigit(c) || c == '+') {
+				sb.append(c);
+			} else if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') {
+				sb.append(' ');
+			}
+		}
+
+		if (sb.length() > 0 && sb.charAt(sb.length() - 1) == ' ') {
+			sb.setLength(sb.length() - 1);
+		}
+
+		return sb.toString();
+	}
+
+	private static final class Scratch {
+		private final int[] sharedTrigrams;
+		private final int[] hitKeys;
+		private final boolean[] seenEmojis;
+
+		private Scratch(int keyCount, int emojiCount) {
+			this.sharedTrigrams = new int[keyCount];
+			this.hitKeys = new int[keyCount];
+			this.seenEmojis = new boolean[emojiCount];
+		}
+	}
+
+	private static class DefaultHolder { //Delay initialization, saves memory if not used
+		private static final EmojiSearch search = of(EmojiRegistry.getDefault());
+	}
+}
@@ -0,0 +1,334 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Cursor splitting a text into emoji segments and plain text segments, in order
+ * <br>Emoji segments are Unicode emojis, as found by {@link EmojiRegistry#findAll(CharSequence)},
+ * and optionally shortcodes such as <code>:joy:</code> or <code>:thumbsup::skin-tone-3:</code>
+ * <br>A segment never splits an emoji sequence, so segment boundaries are safe places to cut a text
+ * <p>
+ * The cursor itself holds the current segment and is updated by {@link #next()}, so iterating does not allocate,
+ * {@link #toMatch()} can be used to keep an emoji segment
+ * <br>Example:
+ * <pre><code>
+ * final EmojiSegmenter segmenter = registry.segment(text);
+ * while (segmenter.next()) {
+ *     if (segmenter.isEmoji()) {
+ *         //Style text.subSequence(segmenter.getStart(), segmenter.getEnd())
+ *     }
+ * }
+ * </code></pre>
+ * A segmenter is not thread safe, but it can be reused with {@link #reset(CharSequence)}
+ *
+ * @see EmojiRegistry#segment(CharSequence, boolean)
+ * @see EmojiRegistry#countEmojis(CharSequence)
+ */
+public final class EmojiSegmenter {
+	private final EmojiRegistry registry;
+	private final UnicodeTrie trie;
+	private final boolean shortcodes;
+	private final int maxShortcodeLength;
+	private final UnicodeTrie.Result result = new UnicodeTrie.Result();
+	private boolean foundShortcode; //Whether the emoji in the result was a shortcode
+
+	private CharSequence text;
+	private int position;
+
+	//Emoji found at the end of the current text segment, returned by the next call
+	private int pendingStart = -1;
+	private int pendingEnd;
+	private Emoji pendingEmoji;
+	private Fitzpatrick pendingFitzpatrick;
+	private boolean pendingShortcode;
+
+	private int start, end;
+	private Emoji emoji;
+	private Fitzpatrick fitzpatrick;
+	private boolean shortcode;
+
+	EmojiSegmenter(@NotNull EmojiRegistry registry, @NotNull CharSequence text, boolean shortcodes) {
+		this.registry = registry;
+		this.trie = registry.getUnicodeTrie();
+		this.shortcodes = shortcodes;
+		this.maxShortcodeLength = registry.getMaxShortcodeLength();
+
+		reset(text);
+	}
+
+	/**
+	 * Restarts this segmenter on another text, keeping its registry and options
+	 *
+	 * @param text The text to segment
+	 * @return This segmenter, for chaining convenience
+	 */
+	@NotNull
+	public EmojiSegmenter reset(@NotNull CharSequence text) {
+		this.text = text;
+		this.position = 0;
+		this.pendingStart = -1;
+		this.result.unpairedRegionalIndicator = -1;
+
+		this.start = this.end = 0;
+		this.emoji = null;
+		this.fitzpatrick = null;
+		this.shortcode = false;
+
+		return this;
+	}
+
+	/**
+	 * Moves to the next segment
+	 *
+	 * @return <code>true</code> if there is a segment, <code>false</code> if the end of the text was reached
+	 */
+	public boolean next() {
+		if (pendingStart != -1) {
+			setSegment(pendingStart, pendingEnd, pendingEmoji, pendingFitzpatrick, pendingShortcode);
+			position = pendingEnd;
+			pendingStart = -1;
+
+			return true;
+		}
+
+		final int length = text.length();
+		if (position >= length) return false;
+
+		final int textStart = position;
+		for (int i = skipText(position, length); i < length; i = skipText(i, length)) {
+			final int emojiEnd = findEmoji(i, length);
+			if (emojiEnd < 0) {
+				i = -emojiEnd;
+				continue;
+			}
+
+			if (i == textStart) {
+				setSegment(i, emojiEnd, result.emoji, result.fitzpatrick, foundShortcode);
+				position = emojiEnd;
+			} else {
+				//Return the text before the emoji first
+				pendingStart = i;
+				pendingEnd = emojiEnd;
+				pendingEmoji = result.emoji;
+				pendingFitzpatrick = result.fitzpatrick;
+				pendingShortcode = foundShortcode;
+
+				setSegment(textStart, i, null, null, false);
+				position = i;
+			}
+
+			return true;
+		}
+
+		setSegment(textStart, length, null, null, false);
+		position = length;
+
+		return true;
+	}
+
+	/**
+	 * Counts the emojis from the current position to the end of the text, and moves to the end
+	 *
+	 * @return The number of emoji segments which were remaining
+	 */
+	public int countEmojis() {
+		int count = 0;
+		if (pendingStart != -1) {
+			count++;
+			position = pendingEnd;
+			pendingStart = -1;
+		}
+
+		final int length = text.length();
+		for (int i = skipText(position, length); i < length; i = skipText(i, length)) {
+			final int emojiEnd = findEmoji(i, length);
+			if (emojiEnd < 0) {
+				i = -emojiEnd;
+			} else {
+				count++;
+				i = emojiEnd;
+			}
+		}
+
+		position = length;
+		setSegment(length, length, null, null, false);
+
+		return count;
+	}
+
+	/**
+	 * Skips the chars which cannot start an emoji or a shortcode
+	 *
+	 * @return The index of the first char which can start one, or <code>length</code> if there is none
+	 */
+	private int skipText(int from, int length) {
+		if (!shortcodes) return trie.skipToStartChar(text, from, length);
+
+		for (int i = from; i < length; i++) {
+			final char c = text.charAt(i);
+			if (c == ':' || trie.isStartChar(c)) return i;
+		}
+
+		return length;
+	}
+
+	/**
+	 * Finds the emoji starting at <code>i</code>, and fills {@link #result} and {@link #foundShortcode} with it
+	 *
+	 * @return The end of the emoji, or the negated index at which the search can resume if there is none
+	 */
+	int findEmoji(int i, int length) {
+		final char c = text.charAt(i);
+		if (shortcodes && c == ':') {
+			final int shortcodeEnd = findShortcode(i, length);
+			if (shortcodeEnd != 0) return shortcodeEnd;
+		}
+
+		if (trie.match(text, i, length, result)) {
+			foundShortcode = false;
+
+			return result.end;
+		}
+
+		return -(i + Character.charCount(Character.codePointAt(text, i)));
+	}
+
+	/**
+	 * Reads the shortcode starting with the colon at <code>open</code>, and fills {@link #result} with it
+	 *
+	 * @return The end of the shortcode, <code>0</code> if there is none,
+	 * or the negated end of the custom emoji token starting there, which is plain text
+	 */
+	private int findShortcode(int open, int length) {
+		final int close = EmojiParser.findClosingColon(text, open + 1, length, maxShortcodeLength);
+		if (close < 0) return 0;
+
+		if (EmojiParser.getCustomTokenPrefixLength(text, 0, open) > 0) {
+			final int tokenEnd = EmojiParser.findCustomTokenEnd(text, close, length);
+			if (tokenEnd > 0) return -tokenEnd;
+		}
+
+		final Emoji shortcodeEmoji = registry.getByShortcode(text, open + 1, close);
+		if (shortcodeEmoji == null) return 0;
+
+		final Fitzpatrick tone = shortcodeEmoji.doesSupportFitzpatrick() ? EmojiParser.findToneSuffix(text, close + 1, length) : null;
+		result.emoji = shortcodeEmoji;
+		result.fitzpatrick = tone;
+		foundShortcode = true;
+
+		return tone != null ? close + 1 + Fitzpatrick.SHORTCODE_SUFFIX_LENGTH : close + 1;
+	}
+
+	/**
+	 * Moves the matching state to <code>position</code>, so {@link #findEmoji(int, int)} can be called from there
+	 */
+	void seek(int position) {
+		this.position = position;
+		this.pendingStart = -1;
+		this.result.unpairedRegionalIndicator = -1;
+	}
+
+	/**
+	 * Returns the emoji found by the last successful {@link #findEmoji(int, int)}
+	 */
+	Emoji getFoundEmoji() {
+		return result.emoji;
+	}
+
+	/**
+	 * Returns the skin tone of the emoji found by the last successful {@link #findEmoji(int, int)}
+	 */
+	Fitzpatrick getFoundFitzpatrick() {
+		return result.fitzpatrick;
+	}
+
+	/**
+	 * Returns the number of chars before a position which can change the emoji found at this position
+	 * <br>This covers the longest emoji sequence, with variation selectors and a skin tone,
+	 * and the longest shortcode, with its skin tone or as a custom emoji token
+	 */
+	int getLookbehind() {
+		final int unicodeLength = 2 * trie.getMaxLength() + 2;
+		if (!shortcodes) return unicodeLength;
+
+		return Math.max(unicodeLength, maxShortcodeLength + 2 + Math.max(Fitzpatrick.SHORTCODE_SUFFIX_LENGTH, EmojiParser.CUSTOM_TOKEN_EXTRA_LENGTH));
+	}
+
+	private void setSegment(int start, int end, Emoji emoji, Fitzpatrick fitzpatrick, boolean shortcode) {
+		this.start = start;
+		this.end = end;
+		this.emoji = emoji;
+		this.fitzpatrick = fitzpatrick;
+		this.shortcode = shortcode;
+	}
+
+	/**
+	 * Tells whether the current segment is an emoji, or plain text
+	 *
+	 * @return <code>true</code> if the current segment is an emoji
+	 */
+	public boolean isEmoji() {
+		return emoji != null;
+	}
+
+	/**
+	 * Tells whether the current segment is an emoji written as a shortcode, such as <code>:joy:</code>
+	 *
+	 * @return <code>true</code> if the current segment is a shortcode emoji
+	 */
+	public boolean isShortcode() {
+		return shortcode;
+	}
+
+	/**
+	 * Returns the emoji of the current segment
+	 *
+	 * @return The emoji, or <code>null</code> if the current segment is plain text
+	 */
+	@Nullable
+	public Emoji getEmoji() {
+		return emoji;
+	}
+
+	/**
+	 * Returns the skin tone applied to the emoji of the current segment
+	 *
+	 * @return The skin tone, or <code>null</code> if there is none
+	 */
+	@Nullable
+	public Fitzpatrick getFitzpatrick() {
+		return fitzpatrick;
+	}
+
+	/**
+	 * Returns the index of the first char of the current segment in the text
+	 *
+	 * @return The start index, inclusive
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * Returns the index after the last char of the current segment in the text
+	 *
+	 * @return The end index, exclusive
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/**
+	 * Copies the current emoji segment, so it can be kept after moving to the next segment
+	 *
+	 * @return A new {@link EmojiMatch}
+	 * @throws IllegalStateException If the current segment is not an emoji
+	 */
+	@NotNull
+	public EmojiMatch toMatch() {
+		if (emoji == null) throw new IllegalStateException("The current segment is not an emoji");
+
+		return new EmojiMatch(emoji, fitzpatrick, start, end);
+	}
+}
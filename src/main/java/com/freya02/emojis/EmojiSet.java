@@ -0,0 +1,159 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link java.util.Set Set} of emojis backed by a bit set indexed by {@link Emoji#getId() emoji IDs}
+ * <br>This takes one bit per known emoji, and does not need to hash the emojis
+ * <p>
+ * Only emojis from {@link Emojis} can be added, this set is not thread safe
+ */
+public final class EmojiSet extends AbstractSet<Emoji> {
+	private final long[] words;
+	private int size;
+
+	/**
+	 * Creates an empty set able to hold any emoji of {@link Emojis}
+	 */
+	public EmojiSet() {
+		this.words = new long[(Emojis.getEmojis().size() + 63) >>> 6];
+	}
+
+	/**
+	 * Adds the emoji with the specified ID
+	 *
+	 * @param id The ID of the emoji
+	 * @return <code>true</code> if the emoji was not already in this set
+	 * @throws IndexOutOfBoundsException If the ID is not a valid emoji ID
+	 */
+	public boolean addId(int id) {
+		checkId(id);
+
+		final long mask = 1L << id;
+		final int index = id >>> 6;
+		if ((words[index] & mask) != 0) return false;
+
+		words[index] |= mask;
+		size++;
+
+		return true;
+	}
+
+	/**
+	 * Removes the emoji with the specified ID
+	 *
+	 * @param id The ID of the emoji
+	 * @return <code>true</code> if the emoji was in this set
+	 */
+	public boolean removeId(int id) {
+		if (!containsId(id)) return false;
+
+		words[id >>> 6] &= ~(1L << id);
+		size--;
+
+		return true;
+	}
+
+	/**
+	 * Checks whether the emoji with the specified ID is in this set
+	 *
+	 * @param id The ID of the emoji
+	 * @return <code>true</code> if the emoji is in this set
+	 */
+	public boolean containsId(int id) {
+		if (id < 0 || id >= words.length << 6) return false;
+
+		return (words[id >>> 6] & (1L << id)) != 0;
+	}
+
+	/**
+	 * Adds the emoji to this set
+	 *
+	 * @param emoji The emoji to add
+	 * @return <code>true</code> if the emoji was not already in this set
+	 * @throws IndexOutOfBoundsException If the emoji does not come from {@link Emojis}
+	 */
+	@Override
+	public boolean add(@NotNull Emoji emoji) {
+		return addId(Emojis.getBundledId(emoji));
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		return o instanceof Emoji && removeId(Emojis.getBundledId((Emoji) o));
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return o instanceof Emoji && containsId(Emojis.getBundledId((Emoji) o));
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(words, 0);
+		size = 0;
+	}
+
+	@NotNull
+	@Override
+	public Iterator<Emoji> iterator() {
+		return new Iterator<>() {
+			private int next = nextSetBit(0);
+			private int last = -1;
+
+			@Override
+			public boolean hasNext() {
+				return next != -1;
+			}
+
+			@Override
+			public Emoji next() {
+				if (next == -1) throw new NoSuchElementException();
+
+				last = next;
+				next = nextSetBit(next + 1);
+
+				return Emojis.byId(last);
+			}
+
+			@Override
+			public void remove() {
+				if (last == -1) throw new IllegalStateException();
+
+				removeId(last);
+				last = -1;
+			}
+		};
+	}
+
+	private int nextSetBit(int from) {
+		int index = from >>> 6;
+		if (index >= words.length) return -1;
+
+		long word = words[index] & (-1L << from);
+		while (true) {
+			if (word != 0) {
+				return (index << 6) + Long.numberOfTrailingZeros(word);
+			}
+
+			if (++index == words.length) return -1;
+			word = words[index];
+		}
+	}
+
+	private void checkId(int id) {
+		if (Emojis.byId(id) == null) {
+			throw new IndexOutOfBoundsException("Invalid emoji ID: " + id);
+		}
+	}
+}
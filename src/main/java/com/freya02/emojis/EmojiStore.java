@@ -2,32 +2,69 @@ package com.freya02.emojis;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import org.slf4j.Logger;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 public class EmojiStore {
 	private static final Logger LOGGER = Logging.getLogger();
+	private static final EmojiTypeAdapter EMOJI_ADAPTER = new EmojiTypeAdapter();
 	private static final Gson GSON = new GsonBuilder()
+			.registerTypeAdapter(Emoji.class, EMOJI_ADAPTER.nullSafe())
 			.setPrettyPrinting()
 			.create();
 
-	private final Set<Emoji> emojis = new HashSet<>();
+	/** Slightly below the actual average, so the estimated capacity errs on the large side */
+	private static final int ESTIMATED_JSON_BYTES_PER_EMOJI = 128;
 
+	private final Set<Emoji> emojis;
+
+	//Built while streaming the JSON, or from the emojis on first use
+	private transient UnicodeTrie unicodeTrie;
+	private transient ShortcodeTable<Emoji> shortcodeTable;
+
+	public EmojiStore() {
+		this.emojis = new LinkedHashSet<>();
+	}
+
+	EmojiStore(int expectedSize) {
+		this.emojis = new LinkedHashSet<>((int) (expectedSize / 0.75f) + 1);
+	}
+
+	/**
+	 * Loads the bundled emojis
+	 * <br>This uses the precompiled binary database when available, and falls back to the bundled JSON otherwise
+	 *
+	 * @return The bundled emojis
+	 * @throws IOException If the bundled emojis could not be read
+	 */
 	public static EmojiStore loadLocal() throws IOException {
 		LOGGER.debug("Loading local emojis");
 
 		final EmojiStore store;
-		try (BufferedReader reader = new BufferedReader(new InputStreamReader(Utils.getResource("JEmojis.json"), StandardCharsets.UTF_8))) {
-			store = GSON.fromJson(reader, EmojiStore.class);
+		final InputStream databaseStream = EmojiStore.class.getResourceAsStream(EmojiDatabase.RESOURCE_NAME);
+		if (databaseStream != null) {
+			try (databaseStream) {
+				store = EmojiDatabase.read(databaseStream);
+			}
+		} else {
+			LOGGER.debug("{} not found, loading from JSON", EmojiDatabase.RESOURCE_NAME);
+
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(Utils.getResource("JEmojis.json"), StandardCharsets.UTF_8))) {
+				store = read(reader, 0);
+			}
 		}
 
 		LOGGER.debug("Loaded {} local emojis", store.getEmojis().size());
@@ -35,11 +72,42 @@ public class EmojiStore {
 		return store;
 	}
 
+	/**
+	 * Loads the emojis from a JSON file, the expected number of emojis is estimated from the file size
+	 *
+	 * @param path The path of the JSON file
+	 * @return The loaded emojis, or an empty store if the file does not exist
+	 * @throws IOException If the file could not be read
+	 * @see #load(Path, int)
+	 */
 	public static EmojiStore load(Path path) throws IOException {
+		if (Files.exists(path)) {
+			return load(path, (int) Math.min(Integer.MAX_VALUE, Files.size(path) / ESTIMATED_JSON_BYTES_PER_EMOJI));
+		} else {
+			return load(path, 0);
+		}
+	}
+
+	/**
+	 * Loads the emojis from a JSON file
+	 * <br>The file is streamed, collections are sized using <code>expectedSize</code>,
+	 * and the Unicode and shortcode lookup indexes are built while reading
+	 *
+	 * @param path         The path of the JSON file
+	 * @param expectedSize The expected number of emojis in the file, the store still grows if there are more
+	 * @return The loaded emojis, or an empty store if the file does not exist
+	 * @throws IOException If the file could not be read
+	 */
+	public static EmojiStore load(Path path, int expectedSize) throws IOException {
+		if (expectedSize < 0) throw new IllegalArgumentException("Expected size cannot be negative: " + expectedSize);
+
 		LOGGER.debug("Loading emojis");
 
 		if (Files.exists(path)) {
-			final EmojiStore emojis = GSON.fromJson(Files.readString(path), EmojiStore.class);
+			final EmojiStore emojis;
+			try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+				emojis = read(reader, expectedSize);
+			}
 
 			LOGGER.debug("Loaded emojis {} from JSON", emojis.emojis.size());
 
@@ -51,6 +119,108 @@ public class EmojiStore {
 		}
 	}
 
+	/**
+	 * Reads a JSON store without materializing the document, indexing each emoji as soon as it is read
+	 */
+	private static EmojiStore read(Reader reader, int expectedSize) throws IOException {
+		final EmojiStore store = new EmojiStore(expectedSize);
+		final UnicodeTrie unicodeTrie = new UnicodeTrie();
+		final ShortcodeTable<Emoji> shortcodeTable = new ShortcodeTable<>(expectedSize);
+
+		final JsonReader in = new JsonReader(reader);
+		in.beginObject();
+		while (in.hasNext()) {
+			if (!in.nextName().equals("emojis") || in.peek() == JsonToken.NULL) {
+				in.skipValue();
+
+				continue;
+			}
+
+			in.beginArray();
+			while (in.hasNext()) {
+				if (in.peek() == JsonToken.NULL) {
+					in.skipValue();
+
+					continue;
+				}
+
+				final Emoji emoji = EMOJI_ADAPTER.read(in);
+				if (store.emojis.add(emoji)) {
+					indexUnicode(unicodeTrie, emoji);
+					indexShortcodes(shortcodeTable, emoji);
+				}
+			}
+			in.endArray();
+		}
+		in.endObject();
+
+		store.unicodeTrie = unicodeTrie;
+		store.shortcodeTable = shortcodeTable;
+
+		return store;
+	}
+
+	/**
+	 * Returns the Unicode trie of this store
+	 * <br>It is either built while loading the JSON, or from the current emojis on the first call,
+	 * emojis added to {@link #getEmojis()} afterwards are not indexed
+	 *
+	 * @return The Unicode trie of this store
+	 */
+	synchronized UnicodeTrie getUnicodeTrie() {
+		if (unicodeTrie == null) {
+			final UnicodeTrie trie = new UnicodeTrie();
+			for (Emoji emoji : emojis) {
+				indexUnicode(trie, emoji);
+			}
+
+			unicodeTrie = trie;
+		}
+
+		return unicodeTrie;
+	}
+
+	/**
+	 * Returns the shortcode table of this store
+	 * <br>It is either built while loading the JSON, or from the current emojis on the first call,
+	 * emojis added to {@link #getEmojis()} afterwards are not indexed
+	 *
+	 * @return The shortcode table of this store
+	 */
+	synchronized ShortcodeTable<Emoji> getShortcodeTable() {
+		if (shortcodeTable == null) {
+			int shortcodeCount = 0;
+			for (Emoji emoji : emojis) {
+				shortcodeCount += emoji.shortcodes().size();
+			}
+
+			final ShortcodeTable<Emoji> table = new ShortcodeTable<>(shortcodeCount);
+			for (Emoji emoji : emojis) {
+				indexShortcodes(table, emoji);
+			}
+
+			shortcodeTable = table;
+		}
+
+		return shortcodeTable;
+	}
+
+	private static void indexUnicode(UnicodeTrie unicodeTrie, Emoji emoji) {
+		final Emoji old = unicodeTrie.put(emoji);
+		if (old != null) {
+			LOGGER.debug("Duplicate unicode: {} in https://emojipedia.org/{} and https://emojipedia.org/{}, might not be grave", emoji.unicode(), old.subpage(), emoji.subpage());
+		}
+	}
+
+	private static void indexShortcodes(ShortcodeTable<Emoji> shortcodeTable, Emoji emoji) {
+		for (String shortcode : emoji.shortcodes()) {
+			final Emoji old = shortcodeTable.put(shortcode, emoji);
+			if (old != null) {
+				LOGGER.debug("Duplicate shortcode: {} in https://emojipedia.org/{} and https://emojipedia.org/{}, might not be grave", shortcode, old.subpage(), emoji.subpage());
+			}
+		}
+	}
+
 	public Set<Emoji> getEmojis() {
 		return emojis;
 	}
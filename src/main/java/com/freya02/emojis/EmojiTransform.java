@@ -0,0 +1,95 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Conversions which can be applied in bulk, such as by an {@link EmojiFileTranscoder} or an {@link EmojiTransformProcessor}
+ */
+public enum EmojiTransform {
+	/**
+	 * Replaces shortcodes with their Unicode emoji
+	 *
+	 * @see EmojiParser#toUnicode(String)
+	 */
+	TO_UNICODE {
+		@Override
+		boolean transform(@NotNull Utf8EmojiParser parser, @NotNull ByteBuffer in, @NotNull ByteBuffer out) {
+			return parser.toUnicode(in, out);
+		}
+
+		@NotNull
+		@Override
+		String transform(@NotNull EmojiRegistry registry, @NotNull String str) {
+			return registry.toUnicode(str);
+		}
+	},
+	/**
+	 * Replaces Unicode emojis with their first shortcode
+	 *
+	 * @see EmojiParser#toShortcodes(String)
+	 */
+	TO_SHORTCODES {
+		@Override
+		boolean transform(@NotNull Utf8EmojiParser parser, @NotNull ByteBuffer in, @NotNull ByteBuffer out) {
+			return parser.toShortcodes(in, out);
+		}
+
+		@NotNull
+		@Override
+		String transform(@NotNull EmojiRegistry registry, @NotNull String str) {
+			return registry.toShortcodes(str);
+		}
+	},
+	/**
+	 * Removes Unicode emojis
+	 *
+	 * @see EmojiParser#stripEmojis(String)
+	 */
+	STRIP {
+		@Override
+		boolean transform(@NotNull Utf8EmojiParser parser, @NotNull ByteBuffer in, @NotNull ByteBuffer out) {
+			return parser.stripEmojis(in, out);
+		}
+
+		@NotNull
+		@Override
+		String transform(@NotNull EmojiRegistry registry, @NotNull String str) {
+			return registry.stripEmojis(str);
+		}
+	},
+	/**
+	 * Keeps only Unicode emojis
+	 *
+	 * @see EmojiParser#extractEmojis(String)
+	 */
+	EXTRACT {
+		@Override
+		boolean transform(@NotNull Utf8EmojiParser parser, @NotNull ByteBuffer in, @NotNull ByteBuffer out) {
+			return parser.extractEmojis(in, out);
+		}
+
+		@NotNull
+		@Override
+		String transform(@NotNull EmojiRegistry registry, @NotNull String str) {
+			return registry.extractEmojis(str);
+		}
+	};
+
+	/**
+	 * Applies this transform to UTF-8 bytes
+	 *
+	 * @return <code>true</code> if the whole input has been transformed, <code>false</code> if the output is full
+	 * @see Utf8EmojiParser
+	 */
+	abstract boolean transform(@NotNull Utf8EmojiParser parser, @NotNull ByteBuffer in, @NotNull ByteBuffer out);
+
+	/**
+	 * Applies this transform to a string, with the emojis of the registry
+	 *
+	 * @return The transformed string
+	 */
+	@NotNull
+	abstract String transform(@NotNull EmojiRegistry registry, @NotNull String str);
+}
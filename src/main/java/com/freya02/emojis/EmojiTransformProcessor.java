@@ -0,0 +1,373 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pipeline stage applying an {@link EmojiTransform} to each message of a {@link Flow.Publisher}, such as messages consumed from a queue
+ * <p>
+ * The processor never holds more than <code>bufferSize</code> messages, received or requested from its upstream,
+ * it requests more as its subscriber consumes the transformed messages
+ * <br>Messages are transformed by up to <code>parallelism</code> tasks of the executor, and delivered in the order they were received
+ * <br>While all the tasks are busy, the messages which arrive are grouped in batches, so small messages do not each pay for a task
+ * <p>
+ * Errors, of the upstream or of a transform, are delivered as soon as they happen, the pending messages are dropped
+ * <br>A processor has a single subscriber, the ones subscribing after it receive an {@link IllegalStateException}
+ *
+ * @see EmojiTransform
+ */
+public final class EmojiTransformProcessor implements Flow.Processor<String, String> {
+	/** Default maximum number of messages transformed by a single task */
+	public static final int DEFAULT_BATCH_SIZE = 64;
+
+	/** Number of chars from which a batch does not take more messages, so large messages are spread across tasks */
+	private static final int MAX_BATCH_CHARS = 16 * 1024;
+
+	private final EmojiRegistry registry;
+	private final EmojiTransform transform;
+	private final Executor executor;
+	private final int parallelism;
+	private final int bufferSize;
+	private final int batchSize;
+	private final int requestThreshold;
+
+	private final Object lock = new Object();
+	/** Batches which are not fully delivered, in order of reception */
+	private final Deque<Batch> batches = new ArrayDeque<>();
+	/** Batches which are not started yet, the last one can take more messages */
+	private final Deque<Batch> waiting = new ArrayDeque<>();
+	private final AtomicInteger drainRequests = new AtomicInteger();
+
+	private Flow.Subscription upstream;
+	private Flow.Subscriber<? super String> downstream;
+	/** Number of messages requested from the upstream, which are not received yet */
+	private long outstanding;
+	/** Number of messages received, which are not delivered yet */
+	private int buffered;
+	private long demand;
+	private int running;
+	private boolean upstreamCompleted;
+	private Throwable error;
+	private boolean cancelled;
+	private boolean terminated;
+
+	/**
+	 * Creates a processor of the bundled emojis, transforming messages in the thread delivering them
+	 *
+	 * @param transform The transform to apply
+	 */
+	public EmojiTransformProcessor(@NotNull EmojiTransform transform) {
+		this(EmojiRegistry.getDefault(), transform, Runnable::run, 1, Flow.defaultBufferSize(), DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Creates a processor
+	 *
+	 * @param registry    The registry of the emojis to transform
+	 * @param transform   The transform to apply
+	 * @param executor    The executor running the transforms, such as a thread pool
+	 * @param parallelism The maximum number of transforms running at once
+	 * @param bufferSize  The maximum number of messages held by the processor, transformed or not
+	 * @param batchSize   The maximum number of messages transformed by a single task
+	 * @throws IllegalArgumentException If <code>parallelism</code>, <code>bufferSize</code> or <code>batchSize</code> is not positive
+	 */
+	public EmojiTransformProcessor(@NotNull EmojiRegistry registry, @NotNull EmojiTransform transform, @NotNull Executor executor, int parallelism, int bufferSize, int batchSize) {
+		if (parallelism <= 0) throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+		if (bufferSize <= 0) throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+		if (batchSize <= 0) throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+
+		this.registry = registry;
+		this.transform = transform;
+		this.executor = executor;
+		this.parallelism = parallelism;
+		this.bufferSize = bufferSize;
+		this.batchSize = batchSize;
+		//Request in chunks, not a message at a time
+		this.requestThreshold = Math.max(1, bufferSize / 4);
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super String> subscriber) {
+		Objects.requireNonNull(subscriber, "Subscriber cannot be null");
+
+		final boolean accepted;
+		synchronized (lock) {
+			accepted = downstream == null;
+			if (accepted) downstream = subscriber;
+		}
+
+		if (accepted) {
+			subscriber.onSubscribe(new DownstreamSubscription());
+			drain();
+		} else {
+			subscriber.onSubscribe(new Flow.Subscription() {
+				@Override
+				public void request(long n) {}
+
+				@Override
+				public void cancel() {}
+			});
+			subscriber.onError(new IllegalStateException("This processor already has a subscriber"));
+		}
+	}
+
+	@Override
+	public void onSubscribe(Flow.Subscription subscription) {
+		Objects.requireNonNull(subscription, "Subscription cannot be null");
+
+		final boolean accepted;
+		synchronized (lock) {
+			accepted = upstream == null && !cancelled;
+			if (accepted) {
+				upstream = subscription;
+				outstanding = bufferSize;
+			}
+		}
+
+		if (accepted) {
+			subscription.request(bufferSize);
+		} else {
+			subscription.cancel();
+		}
+	}
+
+	@Override
+	public void onNext(String item) {
+		Objects.requireNonNull(item, "Item cannot be null");
+
+		final List<Batch> started;
+		synchronized (lock) {
+			if (cancelled || error != null) return;
+
+			outstanding--;
+			buffered++;
+
+			Batch batch = waiting.peekLast();
+			if (batch == null || batch.isFull()) {
+				batch = new Batch();
+				batches.add(batch);
+				waiting.add(batch);
+			}
+			batch.add(item);
+
+			started = startBatches();
+		}
+
+		execute(started);
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+		Objects.requireNonNull(throwable, "Throwable cannot be null");
+
+		synchronized (lock) {
+			if (error == null) error = throwable;
+		}
+
+		drain();
+	}
+
+	@Override
+	public void onComplete() {
+		synchronized (lock) {
+			upstreamCompleted = true;
+		}
+
+		drain();
+	}
+
+	/**
+	 * Starts the waiting batches while there are free tasks, the caller must then execute them outside the lock
+	 */
+	private List<Batch> startBatches() {
+		if (running >= parallelism || waiting.isEmpty()) return List.of();
+
+		final List<Batch> started = new ArrayList<>(1);
+		while (running < parallelism && !waiting.isEmpty()) {
+			started.add(waiting.removeFirst());
+			running++;
+		}
+
+		return started;
+	}
+
+	private void execute(List<Batch> started) {
+		for (Batch batch : started) {
+			try {
+				executor.execute(() -> transform(batch));
+			} catch (RejectedExecutionException e) {
+				fail(e);
+			}
+		}
+	}
+
+	private void transform(Batch batch) {
+		final List<String> results = new ArrayList<>(batch.messages.size());
+		try {
+			for (String message : batch.messages) {
+				results.add(transform.transform(registry, message));
+			}
+		} catch (RuntimeException e) {
+			fail(e);
+
+			return;
+		}
+
+		final List<Batch> started;
+		synchronized (lock) {
+			batch.results = results;
+			running--;
+
+			started = startBatches();
+		}
+
+		execute(started);
+		drain();
+	}
+
+	/**
+	 * Stops the processing, the error is delivered to the subscriber and the upstream is cancelled
+	 */
+	private void fail(Throwable throwable) {
+		final Flow.Subscription subscription;
+		synchronized (lock) {
+			if (error == null) error = throwable;
+
+			subscription = upstream;
+		}
+
+		if (subscription != null) subscription.cancel();
+		drain();
+	}
+
+	/**
+	 * Delivers the transformed messages, in order, and the terminal signals
+	 * <br>Only one thread delivers at once, the calls made meanwhile make it check again
+	 */
+	private void drain() {
+		if (drainRequests.getAndIncrement() != 0) return;
+
+		int missed = 1;
+		do {
+			for (;;) {
+				final Flow.Subscriber<? super String> subscriber;
+				final Flow.Subscription subscription;
+				String item = null;
+				Throwable failure = null;
+				boolean complete = false;
+				long request = 0;
+
+				synchronized (lock) {
+					subscriber = downstream;
+					subscription = upstream;
+					if (subscriber == null || terminated || cancelled) break;
+
+					final Batch head = batches.peekFirst();
+					if (error != null) {
+						terminated = true;
+						failure = error;
+						batches.clear();
+						waiting.clear();
+					} else if (head == null) {
+						if (!upstreamCompleted) break;
+
+						terminated = true;
+						complete = true;
+					} else {
+						if (head.results == null || demand == 0) break;
+
+						item = head.results.get(head.delivered++);
+						if (head.delivered == head.results.size()) batches.removeFirst();
+						if (demand != Long.MAX_VALUE) demand--;
+						buffered--;
+
+						request = getUpstreamRequest();
+					}
+				}
+
+				if (failure != null) {
+					subscriber.onError(failure);
+				} else if (complete) {
+					subscriber.onComplete();
+				} else {
+					if (request > 0) subscription.request(request);
+					subscriber.onNext(item);
+				}
+			}
+
+			missed = drainRequests.addAndGet(-missed);
+		} while (missed != 0);
+	}
+
+	/**
+	 * Returns how many messages can be requested from the upstream without exceeding the buffer size, and counts them as requested
+	 */
+	private long getUpstreamRequest() {
+		final long request = bufferSize - buffered - outstanding;
+		if (upstream == null || upstreamCompleted || request < requestThreshold) return 0;
+
+		outstanding += request;
+
+		return request;
+	}
+
+	private final class DownstreamSubscription implements Flow.Subscription {
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				fail(new IllegalArgumentException("Requested count must be positive: " + n));
+
+				return;
+			}
+
+			synchronized (lock) {
+				demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+			}
+
+			drain();
+		}
+
+		@Override
+		public void cancel() {
+			final Flow.Subscription subscription;
+			synchronized (lock) {
+				if (cancelled) return;
+
+				cancelled = true;
+				batches.clear();
+				waiting.clear();
+
+				subscription = upstream;
+			}
+
+			if (subscription != null) subscription.cancel();
+		}
+	}
+
+	private final class Batch {
+		private final List<String> messages = new ArrayList<>(1);
+		private int chars;
+
+		/** Set once the batch is transformed, guarded by the processor lock */
+		private List<String> results;
+		private int delivered;
+
+		private void add(String message) {
+			messages.add(message);
+			chars += message.length();
+		}
+
+		private boolean isFull() {
+			return messages.size() >= batchSize || chars >= MAX_BATCH_CHARS;
+		}
+	}
+}
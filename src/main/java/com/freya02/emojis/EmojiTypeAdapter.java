@@ -0,0 +1,72 @@
+package com.freya02.emojis;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes {@link Emoji emojis} through their constructor, instead of having Gson set the fields reflectively
+ * <br>Use {@link #nullSafe()} to support <code>null</code> values
+ */
+class EmojiTypeAdapter extends TypeAdapter<Emoji> {
+	@Override
+	public void write(JsonWriter out, Emoji emoji) throws IOException {
+		out.beginObject();
+		out.name("subpage").value(emoji.subpage());
+		out.name("unicode").value(emoji.unicode());
+
+		out.name("shortcodes").beginArray();
+		for (String shortcode : emoji.shortcodes()) {
+			out.value(shortcode);
+		}
+		out.endArray();
+
+		out.name("supportsFitzpatrick").value(emoji.doesSupportFitzpatrick());
+		out.endObject();
+	}
+
+	@Override
+	public Emoji read(JsonReader in) throws IOException {
+		String subpage = null;
+		String unicode = null;
+		List<String> shortcodes = List.of();
+		boolean supportsFitzpatrick = false;
+
+		in.beginObject();
+		while (in.hasNext()) {
+			switch (in.nextName()) {
+				case "subpage":
+					subpage = in.nextString();
+					break;
+				case "unicode":
+					unicode = in.nextString();
+					break;
+				case "shortcodes":
+					shortcodes = new ArrayList<>(2);
+
+					in.beginArray();
+					while (in.hasNext()) {
+						shortcodes.add(in.nextString());
+					}
+					in.endArray();
+					break;
+				case "supportsFitzpatrick":
+					supportsFitzpatrick = in.nextBoolean();
+					break;
+				default:
+					in.skipValue();
+			}
+		}
+		in.endObject();
+
+		if (subpage == null || unicode == null) {
+			throw new IOException("Emoji is missing its subpage or unicode at " + in.getPath());
+		}
+
+		return new Emoji(subpage, unicode, shortcodes, supportsFitzpatrick);
+	}
+}
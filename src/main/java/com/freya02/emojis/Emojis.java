@@ -4,20 +4,23 @@ import org.slf4j.Logger;
 
 import java.io.IOException;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
 
 /**
  * The class where you retrieve emojis by Unicode / shortcode as well as get the emoji list
  *
  * @see #getEmojis()
+ * @see #byId(int)
  * @see #ofUnicode(String)
+ * @see #ofTonedUnicode(String)
  * @see #ofShortcode(String)
+ * @see #findAll(CharSequence)
  */
 public class Emojis {
 	private static final EmojiStore store;
 	private static final Set<Emoji> emojiView;
+	private static final Emoji[] emojisById;
 
 	static {
 		try {
@@ -26,20 +29,64 @@ public class Emojis {
 		} catch (IOException e) {
 			throw new RuntimeException("Unable to load emojis", e);
 		}
+
+		emojisById = store.getEmojis().toArray(new Emoji[0]);
+		for (int i = 0; i < emojisById.length; i++) {
+			emojisById[i].setId(i);
+		}
 	}
 
 	public static Set<Emoji> getEmojis() {
 		return emojiView;
 	}
 
+	/**
+	 * Retrieves an {@link Emoji} by its ID
+	 *
+	 * @param id The ID of the emoji, from <code>0</code> to the number of emojis (exclusive)
+	 * @return The {@link Emoji} with this ID, or <code>null</code> if the ID is out of range
+	 * @see Emoji#getId()
+	 */
+	public static Emoji byId(int id) {
+		if (id < 0 || id >= emojisById.length) return null;
+
+		return emojisById[id];
+	}
+
+	/**
+	 * Returns the ID of the emoji if it is the emoji of {@link #byId(int)} with this ID, or an equal emoji from the same data
+	 *
+	 * @return The ID of the emoji, or <code>-1</code> if it does not resolve to itself
+	 */
+	static int getBundledId(Emoji emoji) {
+		final int id = emoji.getId();
+		final Emoji bundled = byId(id);
+		if (bundled == null || (bundled != emoji && !bundled.equals(emoji))) return -1;
+
+		return id;
+	}
+
 	/**
 	 * Retrieves an {@link Emoji} with the matching Unicode such as <code>😂</code>
+	 * <br>Variation selectors (<code>U+FE0E</code> and <code>U+FE0F</code>) and a trailing zero width joiner are ignored,
+	 * so both <code>☺</code> and <code>☺️</code> return the same emoji
 	 *
 	 * @param unicode The Unicode emoji to find
 	 * @return An {@link Emoji} with the matching unicode, or <code>null</code> if not found
 	 */
 	public static Emoji ofUnicode(String unicode) {
-		return UnicodeHolder.unicodeMap.get(unicode);
+		return getUnicodeTrie().get(unicode);
+	}
+
+	/**
+	 * Retrieves an {@link Emoji} with the matching Unicode and its skin tone, such as <code>👍🏽</code>
+	 * <br>Unlike {@link #ofUnicode(String)}, this also accepts emojis with a skin tone modifier, if they support fitzpatrick
+	 *
+	 * @param unicode The Unicode emoji to find, with or without skin tone
+	 * @return A {@link TonedEmoji} with the base emoji and its skin tone, or <code>null</code> if not found
+	 */
+	public static TonedEmoji ofTonedUnicode(String unicode) {
+		return getUnicodeTrie().getToned(unicode);
 	}
 
 	/**
@@ -49,44 +96,59 @@ public class Emojis {
 	 * @return An {@link Emoji} with the matching shortcode, or <code>null</code> if not found
 	 */
 	public static Emoji ofShortcode(String shortcode) {
-		if (shortcode.charAt(0) == ':' && shortcode.charAt(shortcode.length() - 1) == ':') {
-			return ShortcodeHolder.shortcodeMap.get(shortcode.substring(1, shortcode.length() - 1));
-		} else {
-			return ShortcodeHolder.shortcodeMap.get(shortcode);
-		}
+		return getShortcodeTable().get(shortcode);
 	}
 
-	private static class UnicodeHolder { //Delay initialization, saves memory if not used
+	/**
+	 * Finds all the Unicode emojis in the specified text, in a single pass
+	 * <br>When multiple emojis start at the same position, the longest one is picked, so <code>👨‍👩‍👧</code> is returned as one emoji and not as three
+	 * <br>Symbols which are text by default, such as <code>©</code>, are only found when followed by <code>U+FE0F</code>, and none is found when followed by <code>U+FE0E</code>
+	 *
+	 * @param text The text to search emojis in
+	 * @return The emojis found in the text along with their position, in order of appearance
+	 */
+	public static List<EmojiMatch> findAll(CharSequence text) {
+		return getUnicodeTrie().findAll(text);
+	}
+
+	/**
+	 * Counts the Unicode emojis in the specified text, without allocating a match for each of them
+	 *
+	 * @param text The text to count emojis in
+	 * @return The number of emojis, an emoji sequence such as <code>👨‍👩‍👧</code> counts as one
+	 * @see EmojiRegistry#segment(CharSequence)
+	 */
+	public static int countEmojis(CharSequence text) {
+		return EmojiRegistry.getDefault().countEmojis(text);
+	}
+
+	static ShortcodeTable<Emoji> getShortcodeTable() {
+		return ShortcodeHolder.shortcodeTable;
+	}
+
+	static UnicodeTrie getUnicodeTrie() {
+		return UnicodeHolder.unicodeTrie;
+	}
+
+	private static class ShortcodeHolder { //Delay initialization, saves memory if not used
 		private static final Logger LOGGER = Logging.getLogger();
-		private static final Map<String, Emoji> unicodeMap = new HashMap<>();
+		private static final ShortcodeTable<Emoji> shortcodeTable;
 
 		static {
-			for (Emoji emoji : store.getEmojis()) {
-				final Emoji old = unicodeMap.put(emoji.unicode(), emoji);
-				if (old != null) {
-					LOGGER.debug("Duplicate unicode: {} in https://emojipedia.org/{} and https://emojipedia.org/{}, might not be grave", emoji.unicode(), old.subpage(), emoji.subpage());
-				}
-			}
-
-			LOGGER.debug("Loaded unicode map");
+			shortcodeTable = store.getShortcodeTable();
+
+			LOGGER.debug("Loaded shortcode table");
 		}
 	}
 
-	private static class ShortcodeHolder { //Delay initialization, saves memory if not used
+	private static class UnicodeHolder { //Delay initialization, saves memory if not used
 		private static final Logger LOGGER = Logging.getLogger();
-		private static final Map<String, Emoji> shortcodeMap = new HashMap<>();
+		private static final UnicodeTrie unicodeTrie;
 
 		static {
-			for (Emoji emoji : store.getEmojis()) {
-				for (String shortcode : emoji.shortcodes()) {
-					final Emoji old = shortcodeMap.put(shortcode, emoji);
-					if (old != null) {
-						LOGGER.debug("Duplicate shortcode: {} in https://emojipedia.org/{} and https://emojipedia.org/{}, might not be grave", shortcode, old.subpage(), emoji.subpage());
-					}
-				}
-			}
-
-			LOGGER.debug("Loaded shortcode map");
+			unicodeTrie = store.getUnicodeTrie();
+
+			LOGGER.debug("Loaded unicode trie");
 		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Skin tones which can be applied to emojis supporting fitzpatrick, see {@link Emoji#doesSupportFitzpatrick()}
+ * <br>The shortcodes are the ones used by Discord, such as <code>:thumbsup::skin-tone-3:</code>
+ */
+public enum Fitzpatrick {
+	TYPE_1_2(0x1F3FB),
+	TYPE_3(0x1F3FC),
+	TYPE_4(0x1F3FD),
+	TYPE_5(0x1F3FE),
+	TYPE_6(0x1F3FF);
+
+	static final String SHORTCODE_PREFIX = "skin-tone-";
+	/** Length of <code>:skin-tone-N:</code> */
+	static final int SHORTCODE_SUFFIX_LENGTH = SHORTCODE_PREFIX.length() + 3;
+
+	private static final Fitzpatrick[] VALUES = values();
+
+	private final int codepoint;
+	private final String unicode;
+	private final String shortcode;
+
+	Fitzpatrick(int codepoint) {
+		this.codepoint = codepoint;
+		this.unicode = Character.toString(codepoint);
+		this.shortcode = SHORTCODE_PREFIX + (ordinal() + 1);
+	}
+
+	/**
+	 * Returns the codepoint of this skin tone modifier, such as <code>U+1F3FB</code>
+	 *
+	 * @return The codepoint of this modifier
+	 */
+	public int getCodepoint() {
+		return codepoint;
+	}
+
+	/**
+	 * Returns the Unicode of this skin tone modifier, such as <code>🏻</code>
+	 *
+	 * @return The Unicode of this modifier
+	 */
+	public String unicode() {
+		return unicode;
+	}
+
+	/**
+	 * Returns the shortcode of this skin tone, such as <code>skin-tone-1</code>
+	 * <br><b>This shortcode does not have : in it</b>
+	 *
+	 * @return The shortcode of this skin tone
+	 */
+	public String getShortcode() {
+		return shortcode;
+	}
+
+	/**
+	 * Retrieves the skin tone of the specified modifier codepoint
+	 *
+	 * @param codepoint The codepoint of the modifier, from <code>U+1F3FB</code> to <code>U+1F3FF</code>
+	 * @return The skin tone, or <code>null</code> if the codepoint is not a skin tone modifier
+	 */
+	@Nullable
+	public static Fitzpatrick ofCodepoint(int codepoint) {
+		final int index = codepoint - TYPE_1_2.codepoint;
+		if (index < 0 || index >= VALUES.length) return null;
+
+		return VALUES[index];
+	}
+
+	/**
+	 * Retrieves the skin tone of the specified shortcode, such as <code>skin-tone-1</code> or <code>:skin-tone-1:</code>
+	 *
+	 * @param shortcode The shortcode of the skin tone
+	 * @return The skin tone, or <code>null</code> if the shortcode is not a skin tone
+	 */
+	@Nullable
+	public static Fitzpatrick ofShortcode(@NotNull String shortcode) {
+		if (shortcode.length() == SHORTCODE_SUFFIX_LENGTH && shortcode.charAt(0) == ':' && shortcode.charAt(shortcode.length() - 1) == ':') {
+			return ofShortcode(shortcode, 1);
+		} else if (shortcode.length() == SHORTCODE_PREFIX.length() + 1) {
+			return ofShortcode(shortcode, 0);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Retrieves the skin tone of the <code>skin-tone-N</code> shortcode starting at <code>start</code>
+	 * <br>The text needs to have at least <code>skin-tone-N</code>'s length chars after <code>start</code>
+	 */
+	@Nullable
+	static Fitzpatrick ofShortcode(@NotNull CharSequence text, int start) {
+		for (int i = 0; i < SHORTCODE_PREFIX.length(); i++) {
+			if (text.charAt(start + i) != SHORTCODE_PREFIX.charAt(i)) return null;
+		}
+
+		final int index = text.charAt(start + SHORTCODE_PREFIX.length()) - '1';
+		if (index < 0 || index >= VALUES.length) return null;
+
+		return VALUES[index];
+	}
+}
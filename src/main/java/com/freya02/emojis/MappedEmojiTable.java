@@ -0,0 +1,323 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Read-only emoji table backed by a memory mapped {@link EmojiDatabase binary emoji database}
+ * <br>Lookups binary search the sorted indexes of the database directly, and {@link Emoji} instances are only created when they are returned,
+ * so the heap usage depends on how many emojis are used, and not on how many exist
+ * <p>
+ * The returned emojis have the same IDs as in {@link Emojis}, when the table is made from the same data
+ * <br>This class is thread safe
+ *
+ * @see #openLocal()
+ * @see #open(Path)
+ */
+public final class MappedEmojiTable {
+	private static final Logger LOGGER = Logging.getLogger();
+
+	private final ByteBuffer buffer;
+	private final int stringEndsStart;
+	private final int stringDataStart;
+	private final int shortcodesStart;
+	private final int recordsStart;
+	private final int unicodeOrderStart;
+	private final int shortcodeOrderStart;
+	private final int shortcodeOwnersStart;
+	private final int emojiCount;
+	private final int shortcodeCount;
+
+	private final AtomicReferenceArray<Emoji> emojis;
+
+	private MappedEmojiTable(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+
+		EmojiDatabase.checkHeader(buffer);
+
+		final int stringCount = buffer.getInt(EmojiDatabase.HEADER_SIZE);
+		this.stringEndsStart = EmojiDatabase.HEADER_SIZE + Integer.BYTES;
+		this.stringDataStart = stringEndsStart + stringCount * Integer.BYTES;
+
+		final int stringDataLength = stringCount == 0 ? 0 : buffer.getInt(stringDataStart - Integer.BYTES);
+		this.shortcodeCount = buffer.getInt(stringDataStart + stringDataLength);
+		this.shortcodesStart = stringDataStart + stringDataLength + Integer.BYTES;
+
+		this.emojiCount = buffer.getInt(shortcodesStart + shortcodeCount * Integer.BYTES);
+		this.recordsStart = shortcodesStart + shortcodeCount * Integer.BYTES + Integer.BYTES;
+
+		this.unicodeOrderStart = recordsStart + emojiCount * EmojiDatabase.RECORD_SIZE;
+		this.shortcodeOrderStart = unicodeOrderStart + emojiCount * Integer.BYTES;
+		this.shortcodeOwnersStart = shortcodeOrderStart + shortcodeCount * Integer.BYTES;
+
+		if (shortcodeOwnersStart + shortcodeCount * Integer.BYTES > buffer.limit()) {
+			throw new IOException("Truncated emoji database");
+		}
+
+		this.emojis = new AtomicReferenceArray<>(emojiCount);
+	}
+
+	/**
+	 * Maps the specified binary emoji database
+	 *
+	 * @param path The path of the binary emoji database
+	 * @return The mapped table
+	 * @throws IOException If the file could not be mapped, or is not a valid emoji database
+	 */
+	@NotNull
+	public static MappedEmojiTable open(@NotNull Path path) throws IOException {
+		final MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		return new MappedEmojiTable(buffer);
+	}
+
+	/**
+	 * Maps the bundled binary emoji database
+	 * <br>As resources cannot be mapped directly, the database is first copied to a temporary file, deleted when the JVM exits
+	 * <br>This is only done on the first call, the same table is returned afterwards
+	 *
+	 * @return The mapped table
+	 * @throws IOException If the bundled database is missing or could not be copied
+	 */
+	@NotNull
+	public static MappedEmojiTable openLocal() throws IOException {
+		if (LocalHolder.error != null) {
+			throw new IOException(LocalHolder.error.getMessage(), LocalHolder.error);
+		}
+
+		return LocalHolder.table;
+	}
+
+	private static MappedEmojiTable copyAndOpenLocal() throws IOException {
+		final Path tempFile = Files.createTempFile("JEmojis", ".bin");
+		tempFile.toFile().deleteOnExit();
+
+		try (InputStream stream = EmojiStore.class.getResourceAsStream(EmojiDatabase.RESOURCE_NAME)) {
+			if (stream == null) {
+				throw new IOException("Resource " + EmojiDatabase.RESOURCE_NAME + " not found, it is generated during the build");
+			}
+
+			Files.copy(stream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		LOGGER.debug("Copied the bundled emoji database to {}", tempFile);
+
+		return open(tempFile);
+	}
+
+	/**
+	 * Returns the number of emojis in this table
+	 *
+	 * @return The number of emojis
+	 */
+	public int size() {
+		return emojiCount;
+	}
+
+	/**
+	 * Retrieves the emoji with the specified ID, creating it if it was never requested before
+	 *
+	 * @param id The ID of the emoji, from <code>0</code> to {@link #size()} (exclusive)
+	 * @return The {@link Emoji} with this ID, or <code>null</code> if the ID is out of range
+	 */
+	@Nullable
+	public Emoji byId(int id) {
+		if (id < 0 || id >= emojiCount) return null;
+
+		final Emoji emoji = emojis.get(id);
+		if (emoji != null) return emoji;
+
+		final Emoji newEmoji = readEmoji(id);
+		if (emojis.compareAndSet(id, null, newEmoji)) {
+			return newEmoji;
+		} else {
+			return emojis.get(id);
+		}
+	}
+
+	/**
+	 * Retrieves an {@link Emoji} with the matching Unicode such as <code>😂</code>
+	 * <br>Variation selectors and a trailing zero width joiner are ignored, as with {@link Emojis#ofUnicode(String)}
+	 *
+	 * @param unicode The Unicode emoji to find
+	 * @return An {@link Emoji} with the matching unicode, or <code>null</code> if not found
+	 */
+	@Nullable
+	public Emoji ofUnicode(@NotNull String unicode) {
+		final byte[] key = EmojiDatabase.encodeUnicodeKey(unicode);
+
+		int low = 0, high = emojiCount - 1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			final int id = buffer.getInt(unicodeOrderStart + mid * Integer.BYTES);
+			final int cmp = compareUnicodeKey(getRecordInt(id, 1), key);
+
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return byId(id);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Retrieves an {@link Emoji} with the matching shortcode such as <code>:joy:</code>
+	 *
+	 * @param shortcode The shortcode emoji to find
+	 * @return An {@link Emoji} with the matching shortcode, or <code>null</code> if not found
+	 */
+	@Nullable
+	public Emoji ofShortcode(@NotNull String shortcode) {
+		if (shortcode.length() >= 2 && shortcode.charAt(0) == ':' && shortcode.charAt(shortcode.length() - 1) == ':') {
+			shortcode = shortcode.substring(1, shortcode.length() - 1);
+		}
+
+		final byte[] key = shortcode.getBytes(StandardCharsets.UTF_8);
+
+		int low = 0, high = shortcodeCount - 1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			final int shortcodeIndex = buffer.getInt(shortcodeOrderStart + mid * Integer.BYTES);
+			final int cmp = compareString(buffer.getInt(shortcodesStart + shortcodeIndex * Integer.BYTES), key);
+
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return byId(buffer.getInt(shortcodeOwnersStart + shortcodeIndex * Integer.BYTES));
+			}
+		}
+
+		return null;
+	}
+
+	private Emoji readEmoji(int id) {
+		final String subpage = readString(getRecordInt(id, 0));
+		final String unicode = readString(getRecordInt(id, 1));
+		final int shortcodeStart = getRecordInt(id, 2);
+		final int shortcodeCount = buffer.getShort(getRecordOffset(id) + 3 * Integer.BYTES);
+		final int flags = buffer.getShort(getRecordOffset(id) + 3 * Integer.BYTES + Short.BYTES);
+
+		final List<String> shortcodes = new ArrayList<>(shortcodeCount);
+		for (int i = 0; i < shortcodeCount; i++) {
+			shortcodes.add(readString(buffer.getInt(shortcodesStart + (shortcodeStart + i) * Integer.BYTES)));
+		}
+
+		final Emoji emoji = new Emoji(subpage, unicode, shortcodes, (flags & EmojiDatabase.FLAG_FITZPATRICK) != 0);
+		emoji.setId(id);
+
+		return emoji;
+	}
+
+	private int getRecordOffset(int id) {
+		return recordsStart + id * EmojiDatabase.RECORD_SIZE;
+	}
+
+	private int getRecordInt(int id, int field) {
+		return buffer.getInt(getRecordOffset(id) + field * Integer.BYTES);
+	}
+
+	private int getStringStart(int stringIndex) {
+		return stringIndex == 0 ? 0 : buffer.getInt(stringEndsStart + (stringIndex - 1) * Integer.BYTES);
+	}
+
+	private int getStringEnd(int stringIndex) {
+		return buffer.getInt(stringEndsStart + stringIndex * Integer.BYTES);
+	}
+
+	private String readString(int stringIndex) {
+		final int start = getStringStart(stringIndex);
+		final byte[] bytes = new byte[getStringEnd(stringIndex) - start];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = buffer.get(stringDataStart + start + i);
+		}
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Compares the string with the key, by unsigned byte order
+	 */
+	private int compareString(int stringIndex, byte[] key) {
+		final int start = stringDataStart + getStringStart(stringIndex);
+		final int end = stringDataStart + getStringEnd(stringIndex);
+
+		int i = start, j = 0;
+		for (; i < end && j < key.length; i++, j++) {
+			final int cmp = Byte.compareUnsigned(buffer.get(i), key[j]);
+			if (cmp != 0) return cmp;
+		}
+
+		return Integer.compare(end - i, key.length - j);
+	}
+
+	/**
+	 * Compares the unicode string with the key, skipping the variation selectors (<code>EF B8 8E</code> and <code>EF B8 8F</code> in UTF-8) of the string
+	 */
+	private int compareUnicodeKey(int stringIndex, byte[] key) {
+		final int start = stringDataStart + getStringStart(stringIndex);
+		final int end = stringDataStart + getStringEnd(stringIndex);
+
+		int i = start, j = 0;
+		while (true) {
+			if (i + 2 < end && buffer.get(i) == (byte) 0xEF && buffer.get(i + 1) == (byte) 0xB8) {
+				final byte last = buffer.get(i + 2);
+				if (last == (byte) 0x8E || last == (byte) 0x8F) {
+					i += 3;
+
+					continue;
+				}
+			}
+
+			if (i == end || j == key.length) break;
+
+			final int cmp = Byte.compareUnsigned(buffer.get(i), key[j]);
+			if (cmp != 0) return cmp;
+
+			i++;
+			j++;
+		}
+
+		return Integer.compare(end - i, key.length - j);
+	}
+
+	private static class LocalHolder { //Delay initialization, saves memory if not used
+		private static final MappedEmojiTable table;
+		private static final IOException error;
+
+		static {
+			MappedEmojiTable localTable = null;
+			IOException localError = null;
+			try {
+				localTable = copyAndOpenLocal();
+			} catch (IOException e) {
+				localError = e;
+			}
+
+			table = localTable;
+			error = localError;
+		}
+	}
+}
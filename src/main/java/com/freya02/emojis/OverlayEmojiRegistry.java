@@ -0,0 +1,151 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link EmojiRegistry} adding shortcode aliases on top of a base registry
+ * <br>Only the aliases are stored, everything else, including the {@link Emoji} instances, comes from the base registry
+ *
+ * @see EmojiRegistry#overlay(Map)
+ */
+final class OverlayEmojiRegistry extends EmojiRegistry {
+	private static final Logger LOGGER = Logging.getLogger();
+
+	private final EmojiRegistry base;
+	private final String[] aliasNames;
+	private final String[] aliasTargets;
+
+	//Resolved against a specific version of the base registry
+	private volatile Aliases aliases;
+
+	OverlayEmojiRegistry(EmojiRegistry base, Map<String, String> aliases) {
+		this.base = base;
+		this.aliasNames = new String[aliases.size()];
+		this.aliasTargets = new String[aliases.size()];
+
+		int i = 0;
+		for (Map.Entry<String, String> entry : aliases.entrySet()) {
+			final String alias = entry.getKey();
+			final String target = entry.getValue();
+			if (alias.isEmpty() || alias.indexOf(':') != -1 || alias.chars().anyMatch(Character::isWhitespace)) {
+				throw new IllegalArgumentException("Invalid alias: '" + alias + "'");
+			}
+
+			if (base.ofShortcode(target) == null) {
+				throw new IllegalArgumentException("Alias " + alias + " targets an unknown shortcode: " + target);
+			}
+
+			aliasNames[i] = alias;
+			aliasTargets[i] = target;
+			i++;
+		}
+
+		this.aliases = resolve();
+	}
+
+	@NotNull
+	@Override
+	public Set<Emoji> getEmojis() {
+		return base.getEmojis();
+	}
+
+	@Nullable
+	@Override
+	public Emoji byId(int id) {
+		return base.byId(id);
+	}
+
+	@NotNull
+	@Override
+	UnicodeTrie getUnicodeTrie() {
+		return base.getUnicodeTrie();
+	}
+
+	@Nullable
+	@Override
+	Emoji getByShortcode(@NotNull CharSequence text, int start, int end) {
+		final Emoji emoji = getAliases().table.get(text, start, end);
+		if (emoji != null) return emoji;
+
+		return base.getByShortcode(text, start, end);
+	}
+
+	@Override
+	int getMaxShortcodeLength() {
+		return Math.max(getAliases().table.getMaxLength(), base.getMaxShortcodeLength());
+	}
+
+	@NotNull
+	@Override
+	List<String> getShortcodes(@NotNull Emoji emoji) {
+		final List<String> shortcodes = getAliases().shortcodes.get(emoji);
+		if (shortcodes != null) return shortcodes;
+
+		return base.getShortcodes(emoji);
+	}
+
+	@NotNull
+	@Override
+	Object getVersion() {
+		return getAliases();
+	}
+
+	private Aliases getAliases() {
+		final Aliases current = aliases;
+		if (current.baseVersion == base.getVersion()) return current;
+
+		//Base was reloaded, concurrent callers may both resolve, which is harmless
+		final Aliases resolved = resolve();
+		aliases = resolved;
+
+		return resolved;
+	}
+
+	private Aliases resolve() {
+		final Object baseVersion = base.getVersion();
+		final ShortcodeTable<Emoji> table = new ShortcodeTable<>(aliasNames.length);
+		final Map<Emoji, List<String>> shortcodes = new HashMap<>();
+
+		for (int i = 0; i < aliasNames.length; i++) {
+			final Emoji emoji = base.ofShortcode(aliasTargets[i]);
+			if (emoji == null) {
+				LOGGER.debug("Ignoring alias {}, its target {} no longer exists", aliasNames[i], aliasTargets[i]);
+
+				continue;
+			}
+
+			table.put(aliasNames[i], emoji);
+			shortcodes.computeIfAbsent(emoji, x -> new ArrayList<>()).add(aliasNames[i]);
+		}
+
+		//Aliases come first, then the shortcodes of the base
+		for (Map.Entry<Emoji, List<String>> entry : shortcodes.entrySet()) {
+			final List<String> list = entry.getValue();
+			list.addAll(base.getShortcodes(entry.getKey()));
+			entry.setValue(Collections.unmodifiableList(list));
+		}
+
+		return new Aliases(baseVersion, table, shortcodes);
+	}
+
+	private static final class Aliases {
+		private final Object baseVersion;
+		private final ShortcodeTable<Emoji> table;
+		private final Map<Emoji, List<String>> shortcodes;
+
+		private Aliases(Object baseVersion, ShortcodeTable<Emoji> table, Map<Emoji, List<String>> shortcodes) {
+			this.baseVersion = baseVersion;
+			this.table = table;
+			this.shortcodes = shortcodes;
+		}
+	}
+}
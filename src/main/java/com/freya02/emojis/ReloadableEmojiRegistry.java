@@ -0,0 +1,234 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link EmojiRegistry} loaded from a JSON file, which can be reloaded while it is being used
+ * <br>Unlike {@link Emojis}, multiple registries can exist, and each of them can pick up a new version of its file without restarting
+ * <p>
+ * The emojis and their indexes are held in an immutable snapshot, a reload builds a complete new snapshot and then replaces the current one,
+ * lookups never block and always see either the old or the new dataset entirely
+ *
+ * @see EmojiRegistry#load(Path)
+ * @see #reload()
+ * @see #startWatching()
+ */
+public final class ReloadableEmojiRegistry extends EmojiRegistry implements Closeable {
+	private static final Logger LOGGER = Logging.getLogger();
+
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+	private final Path path;
+	private final Object reloadLock = new Object();
+
+	private volatile Snapshot snapshot;
+
+	private WatchService watchService;
+
+	private ReloadableEmojiRegistry(Path path, Snapshot snapshot) {
+		this.path = path;
+		this.snapshot = snapshot;
+	}
+
+	@NotNull
+	static ReloadableEmojiRegistry loadFrom(@NotNull Path path) throws IOException {
+		return new ReloadableEmojiRegistry(path, Snapshot.load(path, 0));
+	}
+
+	/**
+	 * Returns the path this registry is loaded from
+	 *
+	 * @return The path of the JSON file
+	 */
+	@NotNull
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Reads the file again and atomically replaces the current emojis
+	 * <br>Lookups made during the reload use the previous emojis, if the file cannot be read, the previous emojis are kept
+	 *
+	 * @throws IOException If the file does not exist, could not be read, or is not a valid emoji file
+	 */
+	public void reload() throws IOException {
+		synchronized (reloadLock) {
+			final Snapshot newSnapshot = Snapshot.load(path, snapshot.emojisById.length);
+
+			snapshot = newSnapshot;
+
+			LOGGER.info("Reloaded {} emojis from {}", newSnapshot.emojisById.length, path);
+		}
+	}
+
+	/**
+	 * Starts watching the file, and {@link #reload() reloads} this registry when it is modified
+	 * <br>Watching stops when the registry is {@link #close() closed}
+	 *
+	 * @throws IOException If the file's directory could not be watched
+	 */
+	public void startWatching() throws IOException {
+		synchronized (reloadLock) {
+			if (watchService != null) return;
+
+			final Path directory = path.toAbsolutePath().getParent();
+			final WatchService service = FileSystems.getDefault().newWatchService();
+			directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+			final Thread thread = new Thread(() -> watch(service));
+			thread.setName("Emoji registry watcher #" + THREAD_COUNT.getAndIncrement());
+			thread.setDaemon(true);
+			thread.start();
+
+			watchService = service;
+		}
+	}
+
+	private void watch(WatchService service) {
+		final Path fileName = path.getFileName();
+
+		try {
+			while (true) {
+				final WatchKey key = service.take();
+
+				boolean changed = false;
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (fileName.equals(event.context())) {
+						changed = true;
+					}
+				}
+
+				if (changed) {
+					try {
+						reload();
+					} catch (IOException | RuntimeException e) {
+						//Keep watching, the next write may fix the file
+						LOGGER.warn("Unable to reload emojis from {}, keeping the previous ones", path, e);
+					}
+				}
+
+				if (!key.reset()) {
+					LOGGER.warn("Stopped watching {}, the directory is no longer accessible", path);
+
+					return;
+				}
+			}
+		} catch (ClosedWatchServiceException | InterruptedException ignored) {
+			//Registry closed
+		}
+	}
+
+	/**
+	 * Stops watching the file, if it was watched
+	 *
+	 * @throws IOException If the watch service could not be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (reloadLock) {
+			if (watchService != null) {
+				watchService.close();
+				watchService = null;
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>The returned set is not affected by later reloads
+	 */
+	@NotNull
+	@Override
+	public Set<Emoji> getEmojis() {
+		return snapshot.emojis;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>IDs are assigned per reload, they should not be kept across reloads
+	 */
+	@Nullable
+	@Override
+	public Emoji byId(int id) {
+		final Emoji[] emojisById = snapshot.emojisById;
+		if (id < 0 || id >= emojisById.length) return null;
+
+		return emojisById[id];
+	}
+
+	@NotNull
+	@Override
+	UnicodeTrie getUnicodeTrie() {
+		return snapshot.unicodeTrie;
+	}
+
+	@Nullable
+	@Override
+	Emoji getByShortcode(@NotNull CharSequence text, int start, int end) {
+		return snapshot.shortcodeTable.get(text, start, end);
+	}
+
+	@Override
+	int getMaxShortcodeLength() {
+		return snapshot.shortcodeTable.getMaxLength();
+	}
+
+	@NotNull
+	@Override
+	Object getVersion() {
+		return snapshot;
+	}
+
+	/**
+	 * Emojis and indexes of one version of the file, never modified once built
+	 */
+	private static final class Snapshot {
+		private final Set<Emoji> emojis;
+		private final Emoji[] emojisById;
+		private final UnicodeTrie unicodeTrie;
+		private final ShortcodeTable<Emoji> shortcodeTable;
+
+		private Snapshot(EmojiStore store) {
+			this.emojis = Collections.unmodifiableSet(store.getEmojis());
+			//IDs are not assigned, they are reserved to the emojis of Emojis, which EmojiSet and EmojiIntMap resolve them to
+			this.emojisById = store.getEmojis().toArray(new Emoji[0]);
+
+			this.unicodeTrie = store.getUnicodeTrie();
+			this.shortcodeTable = store.getShortcodeTable();
+		}
+
+		private static Snapshot load(Path path, int expectedSize) throws IOException {
+			if (Files.notExists(path)) {
+				throw new NoSuchFileException(path.toString());
+			}
+
+			try {
+				if (expectedSize == 0) {
+					return new Snapshot(EmojiStore.load(path));
+				} else {
+					return new Snapshot(EmojiStore.load(path, expectedSize));
+				}
+			} catch (IllegalStateException | IllegalArgumentException | NullPointerException e) {
+				//Thrown by Gson and the emoji constructor when the JSON does not have the expected structure
+				throw new IOException("Invalid emoji file " + path + ": " + e.getMessage(), e);
+			}
+		}
+	}
+}
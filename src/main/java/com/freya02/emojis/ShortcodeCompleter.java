@@ -0,0 +1,234 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToIntFunction;
+
+/**
+ * Suggests shortcodes starting with a prefix, such as when the user is typing <code>:thu</code>
+ * <br>Shortcodes are kept in a sorted array, the matching range is found with binary searches,
+ * and the best <code>k</code> candidates are picked with a bounded heap, so only the result is allocated
+ * <p>
+ * Matching is case insensitive, candidates are ranked by their weight (highest first),
+ * then by their length (shortest first), and then alphabetically
+ * <br>A completer is a snapshot of the shortcodes of its registry, it is immutable and thread safe
+ *
+ * @see #getDefault()
+ * @see #of(EmojiRegistry)
+ */
+public final class ShortcodeCompleter {
+	private final String[] keys; //Lowercase, sorted
+	private final String[] shortcodes;
+	private final Emoji[] emojis;
+
+	private ShortcodeCompleter(List<Entry> entries) {
+		entries.sort(Comparator.comparing((Entry e) -> e.key).thenComparing(e -> e.shortcode));
+
+		this.keys = new String[entries.size()];
+		this.shortcodes = new String[entries.size()];
+		this.emojis = new Emoji[entries.size()];
+		for (int i = 0; i < entries.size(); i++) {
+			final Entry entry = entries.get(i);
+			keys[i] = entry.key;
+			shortcodes[i] = entry.shortcode;
+			emojis[i] = entry.emoji;
+		}
+	}
+
+	/**
+	 * Returns the completer of the bundled emojis
+	 *
+	 * @return The completer of the default registry
+	 */
+	@NotNull
+	public static ShortcodeCompleter getDefault() {
+		return DefaultHolder.completer;
+	}
+
+	/**
+	 * Creates a completer of all the shortcodes of the registry
+	 * <br>The completer does not see changes made to the registry after this call
+	 *
+	 * @param registry The registry to take the shortcodes from
+	 * @return A new completer
+	 */
+	@NotNull
+	public static ShortcodeCompleter of(@NotNull EmojiRegistry registry) {
+		final List<Entry> entries = new ArrayList<>(registry.getEmojis().size() * 2);
+		for (Emoji emoji : registry.getEmojis()) {
+			for (String shortcode : registry.getShortcodes(emoji)) {
+				entries.add(new Entry(shortcode.toLowerCase(Locale.ROOT), shortcode, emoji));
+			}
+		}
+
+		return new ShortcodeCompleter(entries);
+	}
+
+	/**
+	 * Returns the best <code>k</code> shortcodes starting with the prefix, shortest first
+	 *
+	 * @param prefix The start of the shortcode, the leading <code>:</code> is optional
+	 * @param k      The maximum number of shortcodes to return
+	 * @return The shortcodes without <code>:</code>, best first
+	 * @see #complete(String, int, ToIntFunction)
+	 */
+	@NotNull
+	public List<String> complete(@NotNull String prefix, int k) {
+		return complete(prefix, k, null);
+	}
+
+	/**
+	 * Returns the best <code>k</code> shortcodes starting with the prefix, ranked by the weight of their emoji
+	 * <br>Weights can come from an {@link EmojiIntMap}, such as usage counts, with <code>map::get</code>
+	 *
+	 * @param prefix  The start of the shortcode, the leading <code>:</code> is optional
+	 * @param k       The maximum number of shortcodes to return
+	 * @param weights The function giving the popularity of an emoji, or <code>null</code> to only rank by length
+	 * @return The shortcodes without <code>:</code>, best first
+	 * @throws IllegalArgumentException If <code>k</code> is negative
+	 */
+	@NotNull
+	public List<String> complete(@NotNull String prefix, int k, @Nullable ToIntFunction<Emoji> weights) {
+		if (k < 0) throw new IllegalArgumentException("k cannot be negative: " + k);
+
+		final int prefixStart = !prefix.isEmpty() && prefix.charAt(0) == ':' ? 1 : 0;
+		final int start = findBound(prefix, prefixStart, false);
+		final int end = findBound(prefix, prefixStart, true);
+
+		final int resultSize = Math.min(k, end - start);
+		if (resultSize == 0) return List.of();
+
+		//Min heap on the rank, the root is the worst of the best candidates so far
+		final int[] heap = new int[resultSize];
+		final int[] heapWeights = new int[resultSize];
+		int heapSize = 0;
+		for (int i = start; i < end; i++) {
+			final int weight = weights == null ? 0 : weights.applyAsInt(emojis[i]);
+
+			if (heapSize < resultSize) {
+				heap[heapSize] = i;
+				heapWeights[heapSize] = weight;
+				siftUp(heap, heapWeights, heapSize++);
+			} else if (isBetter(i, weight, heap[0], heapWeights[0])) {
+				heap[0] = i;
+				heapWeights[0] = weight;
+				siftDown(heap, heapWeights, heapSize);
+			}
+		}
+
+		//Pop the worst first, filling the result from the end
+		final String[] result = new String[resultSize];
+		while (heapSize > 0) {
+			result[--heapSize] = shortcodes[heap[0]];
+
+			heap[0] = heap[heapSize];
+			heapWeights[0] = heapWeights[heapSize];
+			siftDown(heap, heapWeights, heapSize);
+		}
+
+		return Arrays.asList(result);
+	}
+
+	/**
+	 * Finds the first key which starts with the prefix, or with <code>upper</code>, the first key after the ones which start with it
+	 */
+	private int findBound(String prefix, int prefixStart, boolean upper) {
+		int low = 0, high = keys.length;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			final int comparison = comparePrefix(keys[mid], prefix, prefixStart);
+
+			if (comparison < 0 || upper && comparison == 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * Compares the start of the key with the prefix, ignoring its case
+	 *
+	 * @return <code>0</code> if the key starts with the prefix, or the sign of the comparison otherwise
+	 */
+	private static int comparePrefix(String key, String prefix, int prefixStart) {
+		final int prefixLength = prefix.length() - prefixStart;
+		final int length = Math.min(key.length(), prefixLength);
+
+		for (int i = 0; i < length; i++) {
+			final char c = Character.toLowerCase(prefix.charAt(prefixStart + i));
+			final char keyChar = key.charAt(i);
+			if (keyChar != c) return keyChar - c;
+		}
+
+		return key.length() < prefixLength ? -1 : 0;
+	}
+
+	private boolean isBetter(int index, int weight, int otherIndex, int otherWeight) {
+		if (weight != otherWeight) return weight > otherWeight;
+
+		final int length = shortcodes[index].length(), otherLength = shortcodes[otherIndex].length();
+		if (length != otherLength) return length < otherLength;
+
+		return index < otherIndex;
+	}
+
+	private void siftUp(int[] heap, int[] heapWeights, int index) {
+		while (index > 0) {
+			final int parent = (index - 1) >>> 1;
+			if (!isBetter(heap[parent], heapWeights[parent], heap[index], heapWeights[index])) break;
+
+			swap(heap, heapWeights, parent, index);
+			index = parent;
+		}
+	}
+
+	private void siftDown(int[] heap, int[] heapWeights, int size) {
+		int index = 0;
+		while (true) {
+			final int left = 2 * index + 1, right = left + 1;
+
+			int worst = index;
+			if (left < size && isBetter(heap[worst], heapWeights[worst], heap[left], heapWeights[left])) worst = left;
+			if (right < size && isBetter(heap[worst], heapWeights[worst], heap[right], heapWeights[right])) worst = right;
+			if (worst == index) return;
+
+			swap(heap, heapWeights, worst, index);
+			index = worst;
+		}
+	}
+
+	private static void swap(int[] heap, int[] heapWeights, int i, int j) {
+		final int index = heap[i];
+		heap[i] = heap[j];
+		heap[j] = index;
+
+		final int weight = heapWeights[i];
+		heapWeights[i] = heapWeights[j];
+		heapWeights[j] = weight;
+	}
+
+	private static final class Entry {
+		private final String key;
+		private final String shortcode;
+		private final Emoji emoji;
+
+		private Entry(String key, String shortcode, Emoji emoji) {
+			this.key = key;
+			this.shortcode = shortcode;
+			this.emoji = emoji;
+		}
+	}
+
+	private static class DefaultHolder { //Delay initialization, saves memory if not used
+		private static final ShortcodeCompleter completer = of(EmojiRegistry.getDefault());
+	}
+}
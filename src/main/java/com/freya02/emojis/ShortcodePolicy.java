@@ -0,0 +1,88 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Decides which shortcode is used when converting an {@link Emoji} having multiple shortcodes
+ *
+ * @see EmojiParser#toShortcodes(String, ShortcodePolicy)
+ */
+public enum ShortcodePolicy {
+	/**
+	 * Uses the first shortcode of the emoji, such as <code>thumbsup</code> for <code>👍</code>
+	 */
+	FIRST {
+		@Override
+		String choose(List<String> shortcodes) {
+			return shortcodes.get(0);
+		}
+	},
+	/**
+	 * Uses the shortest shortcode of the emoji, such as <code>+1</code> for <code>👍</code>
+	 * <br>If multiple shortcodes have the same length, the first one is used
+	 */
+	SHORTEST {
+		@Override
+		String choose(List<String> shortcodes) {
+			String shortest = shortcodes.get(0);
+			for (int i = 1; i < shortcodes.size(); i++) {
+				final String shortcode = shortcodes.get(i);
+				if (shortcode.length() < shortest.length()) {
+					shortest = shortcode;
+				}
+			}
+
+			return shortest;
+		}
+	},
+	/**
+	 * Uses the first shortcode which Discord accepts as an emoji name (only lowercase letters, digits and <code>_</code>)
+	 * <br>Falls back to the first shortcode if none are accepted
+	 */
+	DISCORD {
+		@Override
+		String choose(List<String> shortcodes) {
+			for (String shortcode : shortcodes) {
+				if (isDiscordName(shortcode)) {
+					return shortcode;
+				}
+			}
+
+			return shortcodes.get(0);
+		}
+
+		private boolean isDiscordName(String shortcode) {
+			for (int i = 0; i < shortcode.length(); i++) {
+				final char c = shortcode.charAt(i);
+				if ((c < 'a' || c > 'z') && (c < '0' || c > '9') && c != '_') {
+					return false;
+				}
+			}
+
+			return true;
+		}
+	};
+
+	/**
+	 * Returns the shortcode to use for this emoji
+	 *
+	 * @param emoji The emoji to get the shortcode of
+	 * @return The chosen shortcode without <code>:</code>, or <code>null</code> if the emoji has no shortcode
+	 */
+	@Nullable
+	public String getShortcode(@NotNull Emoji emoji) {
+		return getShortcode(emoji.shortcodes());
+	}
+
+	@Nullable
+	String getShortcode(@NotNull List<String> shortcodes) {
+		if (shortcodes.isEmpty()) return null;
+
+		return choose(shortcodes);
+	}
+
+	abstract String choose(List<String> shortcodes);
+}
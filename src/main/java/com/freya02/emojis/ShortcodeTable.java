@@ -0,0 +1,175 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Open addressing hash table from shortcodes (without <code>:</code>) to emojis, or to any other value such as custom emojis
+ * <br>Unlike a {@link java.util.HashMap HashMap}, lookups can be made on a range of any {@link CharSequence}, so callers do not need to create a substring
+ * <br>The table grows if more shortcodes than expected are added, sizing it correctly avoids rehashing
+ */
+final class ShortcodeTable<T> {
+	private String[] keys;
+	private int[] hashes;
+	private Object[] values;
+	private int mask;
+
+	private int size;
+	private int maxLength;
+
+	/**
+	 * Creates a table able to hold <code>expectedSize</code> shortcodes without growing
+	 *
+	 * @param expectedSize The number of shortcodes this table is expected to hold
+	 */
+	ShortcodeTable(int expectedSize) {
+		//Keep the load factor under 0.5
+		final int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 4 - 1);
+
+		this.keys = new String[capacity];
+		this.hashes = new int[capacity];
+		this.values = new Object[capacity];
+		this.mask = capacity - 1;
+	}
+
+	/**
+	 * Associates the shortcode to the emoji
+	 *
+	 * @param shortcode The shortcode, without <code>:</code>
+	 * @param emoji     The emoji to associate
+	 * @return The emoji previously associated with this shortcode, or <code>null</code>
+	 */
+	@Nullable
+	T put(@NotNull String shortcode, @NotNull T emoji) {
+		final int hash = shortcode.hashCode();
+
+		int index = mix(hash) & mask;
+		while (keys[index] != null) {
+			if (hashes[index] == hash && keys[index].equals(shortcode)) {
+				final T old = valueAt(index);
+				values[index] = emoji;
+
+				return old;
+			}
+
+			index = (index + 1) & mask;
+		}
+
+		if (size + 1 > keys.length / 2) {
+			grow();
+
+			index = mix(hash) & mask;
+			while (keys[index] != null) {
+				index = (index + 1) & mask;
+			}
+		}
+
+		keys[index] = shortcode;
+		hashes[index] = hash;
+		values[index] = emoji;
+		size++;
+		maxLength = Math.max(maxLength, shortcode.length());
+
+		return null;
+	}
+
+	/**
+	 * Retrieves the emoji associated with the shortcode, which may be surrounded by <code>:</code>
+	 *
+	 * @param shortcode The shortcode, such as <code>joy</code> or <code>:joy:</code>
+	 * @return The associated emoji, or <code>null</code> if none is associated
+	 */
+	@Nullable
+	T get(@NotNull String shortcode) {
+		final int length = shortcode.length();
+		if (length > 2 && shortcode.charAt(0) == ':' && shortcode.charAt(length - 1) == ':') {
+			return get(shortcode, 1, length - 1);
+		} else {
+			return get(shortcode, 0, length);
+		}
+	}
+
+	/**
+	 * Retrieves the emoji associated with the shortcode located between <code>start</code> and <code>end</code> in the text
+	 *
+	 * @param text  The text containing the shortcode
+	 * @param start The index of the first char of the shortcode, inclusive
+	 * @param end   The index after the last char of the shortcode, exclusive
+	 * @return The associated emoji, or <code>null</code> if none is associated
+	 */
+	@Nullable
+	T get(@NotNull CharSequence text, int start, int end) {
+		final int length = end - start;
+		if (length <= 0 || length > maxLength) return null;
+
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + text.charAt(i);
+		}
+
+		int index = mix(hash) & mask;
+		String key;
+		while ((key = keys[index]) != null) {
+			if (hashes[index] == hash && regionEquals(key, text, start, length)) {
+				return valueAt(index);
+			}
+
+			index = (index + 1) & mask;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the length of the longest shortcode in this table
+	 *
+	 * @return The length of the longest shortcode
+	 */
+	int getMaxLength() {
+		return maxLength;
+	}
+
+	private void grow() {
+		final String[] oldKeys = keys;
+		final int[] oldHashes = hashes;
+		final Object[] oldValues = values;
+
+		final int capacity = oldKeys.length * 2;
+		keys = new String[capacity];
+		hashes = new int[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] == null) continue;
+
+			int index = mix(oldHashes[i]) & mask;
+			while (keys[index] != null) {
+				index = (index + 1) & mask;
+			}
+
+			keys[index] = oldKeys[i];
+			hashes[index] = oldHashes[i];
+			values[index] = oldValues[i];
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private T valueAt(int index) {
+		return (T) values[index];
+	}
+
+	private static boolean regionEquals(String key, CharSequence text, int start, int length) {
+		if (key.length() != length) return false;
+
+		for (int i = 0; i < length; i++) {
+			if (key.charAt(i) != text.charAt(start + i)) return false;
+		}
+
+		return true;
+	}
+
+	private static int mix(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+}
@@ -3,8 +3,11 @@ package com.freya02.emojis;
 import java.io.StringWriter;
 import java.text.Normalizer;
 import java.util.HashMap;
+import java.util.regex.Pattern;
 
 public class StringUtils {
+	private static final Pattern COMBINING_DIACRITICAL_MARKS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+
 	private static final String[][] ESCAPES = {
 			{"\"", "quot"}, // " - double-quote
 			{"&", "amp"}, // & - ampersand
@@ -201,6 +204,6 @@ public class StringUtils {
 
 	public static String normalize(String str) {
 		String normalized = Normalizer.normalize(str, Normalizer.Form.NFD);
-		return normalized.replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
+		return COMBINING_DIACRITICAL_MARKS.matcher(normalized).replaceAll("");
 	}
 }
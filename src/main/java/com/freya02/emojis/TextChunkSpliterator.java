@@ -0,0 +1,92 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Splits a text into chunks which can be converted independently, for parallel streams
+ * <br>Chunks are only cut after a space or a line break, which cannot be part of a shortcode, a custom emoji token or an emoji sequence,
+ * so converting each chunk and joining the results gives the same text as converting it at once
+ * <p>
+ * The remaining text is a single element, splitting stops when chunks would be smaller than the minimum size
+ */
+final class TextChunkSpliterator implements Spliterator<String> {
+	private final String text;
+	private final int minChunkSize;
+	private int start;
+	private final int end;
+
+	TextChunkSpliterator(@NotNull String text, int minChunkSize) {
+		this(text, minChunkSize, 0, text.length());
+	}
+
+	private TextChunkSpliterator(String text, int minChunkSize, int start, int end) {
+		this.text = text;
+		this.minChunkSize = minChunkSize;
+		this.start = start;
+		this.end = end;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super String> action) {
+		if (start >= end) return false;
+
+		action.accept(text.substring(start, end));
+		start = end;
+
+		return true;
+	}
+
+	@Override
+	public Spliterator<String> trySplit() {
+		final int length = end - start;
+		if (length < 2 * minChunkSize) return null;
+
+		final int boundary = findBoundary(start + length / 2);
+		if (boundary == -1) return null;
+
+		final TextChunkSpliterator prefix = new TextChunkSpliterator(text, minChunkSize, start, boundary);
+		start = boundary;
+
+		return prefix;
+	}
+
+	/**
+	 * Finds the index after the space or line break closest to <code>middle</code>, without making a chunk smaller than the minimum size
+	 *
+	 * @return The boundary, or <code>-1</code> if there is none
+	 */
+	private int findBoundary(int middle) {
+		final int low = start + minChunkSize, high = end - minChunkSize;
+		for (int distance = 0; middle - distance >= low || middle + distance <= high; distance++) {
+			final int after = middle + distance;
+			if (after <= high && isBoundary(after)) return after;
+
+			final int before = middle - distance;
+			if (before >= low && isBoundary(before)) return before;
+		}
+
+		return -1;
+	}
+
+	private boolean isBoundary(int index) {
+		final char previous = text.charAt(index - 1);
+
+		return previous == ' ' || previous == '\n';
+	}
+
+	/**
+	 * Returns the remaining chars, so parallel streams split large texts more than small ones
+	 */
+	@Override
+	public long estimateSize() {
+		return end - start;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | NONNULL | IMMUTABLE;
+	}
+}
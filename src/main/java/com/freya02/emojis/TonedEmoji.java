@@ -0,0 +1,75 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An {@link Emoji} with an optional skin tone applied
+ *
+ * @see Emojis#ofTonedUnicode(String)
+ */
+public final class TonedEmoji {
+	private final Emoji emoji;
+	private final Fitzpatrick fitzpatrick;
+
+	TonedEmoji(@NotNull Emoji emoji, @Nullable Fitzpatrick fitzpatrick) {
+		this.emoji = emoji;
+		this.fitzpatrick = fitzpatrick;
+	}
+
+	/**
+	 * Returns the base {@link Emoji}, without skin tone
+	 *
+	 * @return The base {@link Emoji}
+	 */
+	@NotNull
+	public Emoji getEmoji() {
+		return emoji;
+	}
+
+	/**
+	 * Returns the skin tone applied to the emoji
+	 *
+	 * @return The skin tone, or <code>null</code> if there is none
+	 */
+	@Nullable
+	public Fitzpatrick getFitzpatrick() {
+		return fitzpatrick;
+	}
+
+	/**
+	 * Returns the Unicode for this emoji with its skin tone, such as <code>👍🏽</code>
+	 *
+	 * @return The Unicode for this emoji
+	 * @see Emoji#unicode(Fitzpatrick)
+	 */
+	public String unicode() {
+		return emoji.unicode(fitzpatrick);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		TonedEmoji that = (TonedEmoji) o;
+
+		if (!emoji.equals(that.emoji)) return false;
+		return fitzpatrick == that.fitzpatrick;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = emoji.hashCode();
+		result = 31 * result + (fitzpatrick != null ? fitzpatrick.hashCode() : 0);
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "TonedEmoji{" +
+				"emoji=" + emoji.unicode() +
+				", fitzpatrick=" + fitzpatrick +
+				'}';
+	}
+}
@@ -0,0 +1,505 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Codepoint trie of the Unicode sequences of a set of emojis
+ * <br>Lookups walk the text once and return the longest emoji starting at the given offset, without allocating
+ * <p>
+ * Variation selectors (<code>U+FE0E</code> and <code>U+FE0F</code>) are not part of the keys,
+ * exact lookups ignore them, so emojis are found whether they are present or not
+ * <br>Scans of running text respect the presentation instead, symbols which are text by default, such as <code>©</code>,
+ * are only matched when followed by <code>U+FE0F</code> or a skin tone, and nothing is matched right before <code>U+FE0E</code>
+ */
+final class UnicodeTrie {
+	private static final int VS15 = 0xFE0E;
+	private static final int VS16 = 0xFE0F;
+	private static final int ZWJ = 0x200D;
+	private static final int REGIONAL_INDICATOR_A = 0x1F1E6;
+	private static final int REGIONAL_INDICATOR_Z = 0x1F1FF;
+	private static final int TAG_SPACE = 0xE0020;
+	private static final int CANCEL_TAG = 0xE007F;
+
+	private static final int[] NO_KEYS = new int[0];
+	private static final Node[] NO_CHILDREN = new Node[0];
+
+	private final Node root = new Node();
+	private int maxLength;
+
+	//Bitmap of the chars starting at least one key, high surrogates included, so text which cannot contain emojis is skipped without walking the trie
+	private final long[] startChars = new long[(Character.MAX_VALUE + 1) / Long.SIZE];
+	//Same for the first two UTF-8 bytes of the keys, all the second bytes are set for keys starting with an ASCII char
+	private final long[] startBytePairs = new long[(Character.MAX_VALUE + 1) / Long.SIZE];
+
+	/**
+	 * Adds the emoji to this trie
+	 *
+	 * @param emoji The emoji to add
+	 * @return The emoji previously registered with the same Unicode, or <code>null</code>
+	 */
+	@Nullable
+	Emoji put(@NotNull Emoji emoji) {
+		final String unicode = emoji.unicode();
+
+		Node node = root;
+		int codepoints = 0;
+		for (int i = 0; i < unicode.length(); ) {
+			final int codepoint = Character.codePointAt(unicode, i);
+			if (!isVariationSelector(codepoint)) {
+				node = node.getOrCreateChild(codepoint);
+				codepoints++;
+			}
+
+			i += Character.charCount(codepoint);
+		}
+
+		final Emoji old = node.emoji;
+		node.emoji = emoji;
+		//Single symbols which need VS16 to be emojis, such as ©, the data includes it in their Unicode
+		node.textDefault = codepoints == 1 && unicode.indexOf(VS16) != -1;
+		maxLength = Math.max(maxLength, unicode.length());
+
+		final char startChar = unicode.charAt(0);
+		startChars[startChar >>> 6] |= 1L << startChar;
+
+		final byte[] startBytes = new String(Character.toChars(unicode.codePointAt(0))).getBytes(StandardCharsets.UTF_8);
+		if (startBytes.length == 1) {
+			for (int second = 0; second < 256; second++) {
+				setStartBytePair(startBytes[0] & 0xFF, second);
+			}
+		} else {
+			setStartBytePair(startBytes[0] & 0xFF, startBytes[1] & 0xFF);
+		}
+
+		return old;
+	}
+
+	/**
+	 * Returns the length, in chars, of the longest Unicode of the emojis of this trie
+	 */
+	int getMaxLength() {
+		return maxLength;
+	}
+
+	/**
+	 * Tells whether an emoji can start with this char, this does not mean an emoji starts there
+	 */
+	boolean isStartChar(char c) {
+		return (startChars[c >>> 6] & (1L << c)) != 0;
+	}
+
+	/**
+	 * Skips the chars which cannot start an emoji, without walking the trie
+	 *
+	 * @return The index of the first char which can start an emoji, or <code>end</code> if there is none
+	 */
+	int skipToStartChar(@NotNull CharSequence text, int from, int end) {
+		for (int i = from; i < end; i++) {
+			final char c = text.charAt(i);
+			if ((startChars[c >>> 6] & (1L << c)) != 0) return i;
+		}
+
+		return end;
+	}
+
+	/**
+	 * Retrieves the emoji with exactly this Unicode, ignoring variation selectors as well as a trailing zero width joiner
+	 *
+	 * @param unicode The Unicode of the emoji
+	 * @return The emoji, or <code>null</code> if not found
+	 */
+	@Nullable
+	Emoji get(@NotNull CharSequence unicode) {
+		final int length = unicode.length();
+
+		Node node = root;
+		for (int i = 0; i < length; ) {
+			final int codepoint = Character.codePointAt(unicode, i);
+			i += Character.charCount(codepoint);
+
+			if (node != root && (isVariationSelector(codepoint) || codepoint == ZWJ && i == length)) continue;
+
+			node = node.getChild(codepoint);
+			if (node == null) return null;
+		}
+
+		return node.emoji;
+	}
+
+	/**
+	 * Finds the longest emoji starting at <code>start</code>
+	 * <br>Variation selectors following the emoji, as well as a zero width joiner ending the text, are included in the match
+	 * <br>Text default symbols are only matched when followed by <code>U+FE0F</code> or a skin tone, and no emoji is matched right before <code>U+FE0E</code>
+	 * <br>Skin tone modifiers are not part of the trie, they are skipped while walking it and reported in the result,
+	 * the emoji is only returned with a skin tone if it supports fitzpatrick
+	 * <p>
+	 * This also handles sequences which would be split incorrectly by a plain longest match:
+	 * <ul>
+	 *     <li>Regional indicators are paired from the start of their run, two indicators which are not a flag are two separate tokens,
+	 *     the second one is remembered in the result so that the next call, starting at it, does not pair it with the following indicator</li>
+	 *     <li>A tag sequence unknown to the trie, such as an unsupported subdivision flag, is included in the match of its base emoji</li>
+	 * </ul>
+	 * Scanning loops must therefore reuse the same result object while walking forward in the same text
+	 *
+	 * @param text   The text to look into
+	 * @param start  The index at which the emoji has to start
+	 * @param end    The index past which the text must not be read
+	 * @param result The result to fill when an emoji is found
+	 * @return <code>true</code> if an emoji was found
+	 */
+	boolean match(@NotNull CharSequence text, int start, int end, @NotNull Result result) {
+		final boolean secondOfPair = start == result.unpairedRegionalIndicator;
+		result.unpairedRegionalIndicator = -1;
+
+		final int first = Character.codePointAt(text, start);
+		if (isRegionalIndicator(first)) {
+			final int afterFirst = start + Character.charCount(first);
+			if (secondOfPair) {
+				return matchSingle(first, start, afterFirst, result);
+			} else if (afterFirst < end && isRegionalIndicator(Character.codePointAt(text, afterFirst))) {
+				final boolean found = matchSequence(text, start, end, result, true);
+				if (found && result.end > afterFirst) return true; //Paired into a flag
+
+				//Not a flag, both indicators stand alone
+				result.unpairedRegionalIndicator = afterFirst;
+
+				return matchSingle(first, start, afterFirst, result);
+			}
+		}
+
+		return matchSequence(text, start, end, result, true);
+	}
+
+	private boolean matchSingle(int codepoint, int start, int end, Result result) {
+		final Node node = root.getChild(codepoint);
+		if (node == null || node.emoji == null) return false;
+
+		result.emoji = node.emoji;
+		result.fitzpatrick = null;
+		result.end = end;
+
+		return true;
+	}
+
+	/**
+	 * @param scan <code>true</code> if the text is running text, where the presentation requested by variation selectors is respected
+	 */
+	private boolean matchSequence(CharSequence text, int start, int end, Result result, boolean scan) {
+		Node node = root;
+		Emoji found = null;
+		int foundEnd = -1;
+		Fitzpatrick fitzpatrick = null;
+
+		for (int i = start; i < end; ) {
+			final int codepoint = Character.codePointAt(text, i);
+			i += Character.charCount(codepoint);
+
+			if (node != root && (isVariationSelector(codepoint) || codepoint == ZWJ && i == end)) {
+				//Text presentation requested, what follows is not part of an emoji
+				if (scan && codepoint == VS15) break;
+
+				//Noise, include it in the match if it directly follows it
+				if (foundEnd == i - Character.charCount(codepoint)) foundEnd = i;
+
+				continue;
+			}
+
+			final Fitzpatrick modifier = node != root ? Fitzpatrick.ofCodepoint(codepoint) : null;
+			if (modifier != null) {
+				//Keep the first tone
+				if (fitzpatrick == null) fitzpatrick = modifier;
+			} else {
+				final Node child = node.getChild(codepoint);
+				if (child == null) {
+					if (found != null && isTag(codepoint)) {
+						//Unknown tag sequence following the emoji, keep it in the match if only tags were read since
+						foundEnd = findTagSequenceEnd(text, foundEnd, end, foundEnd);
+					}
+
+					break;
+				}
+
+				node = child;
+			}
+
+			final Emoji emoji = node.emoji;
+			if (emoji != null && (fitzpatrick == null || emoji.doesSupportFitzpatrick())
+					&& (!scan || hasEmojiPresentation(node, fitzpatrick, i < end ? Character.codePointAt(text, i) : -1))) {
+				found = emoji;
+				foundEnd = i;
+				result.fitzpatrick = fitzpatrick;
+			}
+		}
+
+		if (found == null) return false;
+
+		result.emoji = found;
+		result.end = foundEnd;
+
+		return true;
+	}
+
+	/**
+	 * Retrieves the emoji with exactly this Unicode, with an optional skin tone
+	 *
+	 * @param unicode The Unicode of the emoji, with or without skin tone
+	 * @return The emoji and its skin tone, or <code>null</code> if not found
+	 */
+	@Nullable
+	TonedEmoji getToned(@NotNull String unicode) {
+		final Result result = new Result();
+		if (!unicode.isEmpty() && matchSequence(unicode, 0, unicode.length(), result, false) && result.end == unicode.length()) {
+			return new TonedEmoji(result.emoji, result.fitzpatrick);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Finds all the emojis in the text, picking the longest one when multiple emojis start at the same position
+	 *
+	 * @param text The text to search emojis in
+	 * @return The emojis found in the text along with their position, in order of appearance
+	 */
+	@NotNull
+	List<EmojiMatch> findAll(@NotNull CharSequence text) {
+		final Result result = new Result();
+		final List<EmojiMatch> matches = new ArrayList<>();
+
+		final int length = text.length();
+		for (int i = skipToStartChar(text, 0, length); i < length; i = skipToStartChar(text, i, length)) {
+			if (match(text, i, length, result)) {
+				matches.add(new EmojiMatch(result.emoji, result.fitzpatrick, i, result.end));
+
+				i = result.end;
+			} else {
+				i += Character.charCount(Character.codePointAt(text, i));
+			}
+		}
+
+		return matches;
+	}
+
+	/**
+	 * Skips the UTF-8 bytes which cannot start an emoji, without walking the trie
+	 *
+	 * @return The index of the first byte which can start an emoji, or <code>end</code> if there is none
+	 */
+	int skipToStartByte(@NotNull ByteBuffer bytes, int from, int end) {
+		for (int i = from; i < end; i++) {
+			final int pair = (bytes.get(i) & 0xFF) << 8 | (i + 1 < end ? bytes.get(i + 1) & 0xFF : 0);
+			if ((startBytePairs[pair >>> 6] & (1L << pair)) != 0) return i;
+		}
+
+		return end;
+	}
+
+	/**
+	 * Finds the longest emoji starting at <code>start</code> in UTF-8 bytes, with the same rules as {@link #match(CharSequence, int, int, Result)}
+	 * <br>Indexes are absolute byte indexes in the buffer, the end of the match is a byte index too
+	 *
+	 * @param bytes  The UTF-8 bytes to look into
+	 * @param start  The index at which the emoji has to start
+	 * @param end    The index past which the bytes must not be read
+	 * @param result The result to fill when an emoji is found
+	 * @return <code>true</code> if an emoji was found
+	 */
+	boolean match(@NotNull ByteBuffer bytes, int start, int end, @NotNull Result result) {
+		final boolean secondOfPair = start == result.unpairedRegionalIndicator;
+		result.unpairedRegionalIndicator = -1;
+
+		final int first = Utf8.codePointAt(bytes, start, end);
+		if (isRegionalIndicator(first)) {
+			final int afterFirst = start + Utf8.getLength(first);
+			if (secondOfPair) {
+				return matchSingle(first, start, afterFirst, result);
+			} else if (afterFirst < end && isRegionalIndicator(Utf8.codePointAt(bytes, afterFirst, end))) {
+				final boolean found = matchSequence(bytes, start, end, result, true);
+				if (found && result.end > afterFirst) return true; //Paired into a flag
+
+				//Not a flag, both indicators stand alone
+				result.unpairedRegionalIndicator = afterFirst;
+
+				return matchSingle(first, start, afterFirst, result);
+			}
+		}
+
+		return matchSequence(bytes, start, end, result, true);
+	}
+
+	/**
+	 * Retrieves the emoji with exactly the Unicode between <code>start</code> and <code>end</code> in UTF-8 bytes, with an optional skin tone,
+	 * ignoring variation selectors like {@link #getToned(String)}
+	 *
+	 * @return <code>true</code> if the bytes are exactly one emoji
+	 */
+	boolean matchExactly(@NotNull ByteBuffer bytes, int start, int end, @NotNull Result result) {
+		return start < end && matchSequence(bytes, start, end, result, false) && result.end == end;
+	}
+
+	private boolean matchSequence(ByteBuffer bytes, int start, int end, Result result, boolean scan) {
+		Node node = root;
+		Emoji found = null;
+		int foundEnd = -1;
+		Fitzpatrick fitzpatrick = null;
+
+		for (int i = start; i < end; ) {
+			final int codepoint = Utf8.codePointAt(bytes, i, end);
+			if (codepoint == Utf8.MALFORMED) break;
+			i += Utf8.getLength(codepoint);
+
+			if (node != root && (isVariationSelector(codepoint) || codepoint == ZWJ && i == end)) {
+				//Text presentation requested, what follows is not part of an emoji
+				if (scan && codepoint == VS15) break;
+
+				//Noise, include it in the match if it directly follows it
+				if (foundEnd == i - Utf8.getLength(codepoint)) foundEnd = i;
+
+				continue;
+			}
+
+			final Fitzpatrick modifier = node != root ? Fitzpatrick.ofCodepoint(codepoint) : null;
+			if (modifier != null) {
+				//Keep the first tone
+				if (fitzpatrick == null) fitzpatrick = modifier;
+			} else {
+				final Node child = node.getChild(codepoint);
+				if (child == null) {
+					if (found != null && isTag(codepoint)) {
+						//Unknown tag sequence following the emoji, keep it in the match if only tags were read since
+						foundEnd = findTagSequenceEnd(bytes, foundEnd, end, foundEnd);
+					}
+
+					break;
+				}
+
+				node = child;
+			}
+
+			final Emoji emoji = node.emoji;
+			if (emoji != null && (fitzpatrick == null || emoji.doesSupportFitzpatrick())
+					&& (!scan || hasEmojiPresentation(node, fitzpatrick, i < end ? Utf8.codePointAt(bytes, i, end) : -1))) {
+				found = emoji;
+				foundEnd = i;
+				result.fitzpatrick = fitzpatrick;
+			}
+		}
+
+		if (found == null) return false;
+
+		result.emoji = found;
+		result.end = foundEnd;
+
+		return true;
+	}
+
+	/**
+	 * Mutable holder for the result of {@link #match(CharSequence, int, int, Result)}, so scanning loops can reuse a single instance
+	 */
+	static final class Result {
+		Emoji emoji;
+		Fitzpatrick fitzpatrick;
+		int end;
+
+		//Start of a regional indicator which must not be paired with the next one
+		int unpairedRegionalIndicator = -1;
+	}
+
+	/**
+	 * @return The index after the cancel tag ending the tag sequence at <code>from</code>, or <code>fallback</code> if it is not terminated
+	 */
+	private static int findTagSequenceEnd(CharSequence text, int from, int end, int fallback) {
+		for (int i = from; i < end; ) {
+			final int codepoint = Character.codePointAt(text, i);
+			i += Character.charCount(codepoint);
+
+			if (codepoint == CANCEL_TAG) return i;
+			if (!isTag(codepoint)) break;
+		}
+
+		return fallback;
+	}
+
+	private static int findTagSequenceEnd(ByteBuffer bytes, int from, int end, int fallback) {
+		for (int i = from; i < end; ) {
+			final int codepoint = Utf8.codePointAt(bytes, i, end);
+			if (!isTag(codepoint)) break;
+
+			i += Utf8.getLength(codepoint);
+			if (codepoint == CANCEL_TAG) return i;
+		}
+
+		return fallback;
+	}
+
+	/**
+	 * Tells whether the emoji of the node, followed by <code>next</code>, is displayed as an emoji in running text
+	 */
+	private static boolean hasEmojiPresentation(Node node, Fitzpatrick fitzpatrick, int next) {
+		if (next == VS15) return false;
+
+		return !node.textDefault || fitzpatrick != null || next == VS16;
+	}
+
+	private void setStartBytePair(int first, int second) {
+		final int pair = first << 8 | second;
+		startBytePairs[pair >>> 6] |= 1L << pair;
+	}
+
+	static boolean isRegionalIndicator(int codepoint) {
+		return codepoint >= REGIONAL_INDICATOR_A && codepoint <= REGIONAL_INDICATOR_Z;
+	}
+
+	private static boolean isTag(int codepoint) {
+		return codepoint >= TAG_SPACE && codepoint <= CANCEL_TAG;
+	}
+
+	private static boolean isVariationSelector(int codepoint) {
+		return codepoint == VS15 || codepoint == VS16;
+	}
+
+	private static final class Node {
+		private int[] keys = NO_KEYS; //Sorted codepoints
+		private Node[] children = NO_CHILDREN;
+		private Emoji emoji;
+		private boolean textDefault;
+
+		@Nullable
+		private Node getChild(int codepoint) {
+			final int index = Arrays.binarySearch(keys, codepoint);
+
+			return index >= 0 ? children[index] : null;
+		}
+
+		@NotNull
+		private Node getOrCreateChild(int codepoint) {
+			int index = Arrays.binarySearch(keys, codepoint);
+			if (index >= 0) return children[index];
+
+			index = -index - 1;
+
+			final int[] newKeys = new int[keys.length + 1];
+			final Node[] newChildren = new Node[children.length + 1];
+			System.arraycopy(keys, 0, newKeys, 0, index);
+			System.arraycopy(children, 0, newChildren, 0, index);
+			System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+			System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+
+			final Node child = new Node();
+			newKeys[index] = codepoint;
+			newChildren[index] = child;
+
+			keys = newKeys;
+			children = newChildren;
+
+			return child;
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Helpers to read and write UTF-8 directly in byte buffers, without going through a {@link String}
+ * <br>Indexes are absolute, positions and limits of the buffers are not used unless documented
+ */
+final class Utf8 {
+	/** Returned by {@link #codePointAt(ByteBuffer, int, int)} when the bytes are not valid UTF-8 */
+	static final int MALFORMED = -1;
+
+	private Utf8() {}
+
+	/**
+	 * Decodes the codepoint starting at <code>index</code>
+	 *
+	 * @return The codepoint, or {@link #MALFORMED} if the bytes are not a valid UTF-8 sequence ending before <code>end</code>
+	 */
+	static int codePointAt(@NotNull ByteBuffer bytes, int index, int end) {
+		final int lead = bytes.get(index) & 0xFF;
+		if (lead < 0x80) return lead;
+
+		final int length = getSequenceLength(lead);
+		if (length == 1 || index + length > end) return MALFORMED;
+
+		int codepoint = lead & (0x7F >> length);
+		for (int i = 1; i < length; i++) {
+			final int b = bytes.get(index + i) & 0xFF;
+			if ((b & 0xC0) != 0x80) return MALFORMED;
+
+			codepoint = (codepoint << 6) | (b & 0x3F);
+		}
+
+		return codepoint;
+	}
+
+	/**
+	 * Returns the number of bytes to skip after reading the codepoint at <code>index</code>
+	 *
+	 * @param codepoint The codepoint returned by {@link #codePointAt(ByteBuffer, int, int)}
+	 */
+	static int getLength(int codepoint) {
+		if (codepoint < 0x80) return 1; //Also MALFORMED, skipped byte by byte
+		if (codepoint < 0x800) return 2;
+		if (codepoint < 0x10000) return 3;
+
+		return 4;
+	}
+
+	/**
+	 * Returns the length of the sequence started by this lead byte, <code>1</code> for ASCII and invalid lead bytes
+	 */
+	static int getSequenceLength(int lead) {
+		if (lead >= 0xF0 && lead <= 0xF7) return 4;
+		if (lead >= 0xE0) return lead <= 0xEF ? 3 : 1;
+		if (lead >= 0xC0) return 2;
+
+		return 1;
+	}
+
+	/**
+	 * Returns the number of bytes needed to encode the text
+	 */
+	static int getEncodedLength(@NotNull CharSequence text) {
+		int length = 0;
+		for (int i = 0; i < text.length(); ) {
+			final int codepoint = Character.codePointAt(text, i);
+			length += getLength(codepoint);
+			i += Character.charCount(codepoint);
+		}
+
+		return length;
+	}
+
+	/**
+	 * Encodes the text at the position of the buffer, which must have enough remaining bytes
+	 */
+	static void put(@NotNull ByteBuffer out, @NotNull CharSequence text) {
+		for (int i = 0; i < text.length(); ) {
+			final int codepoint = Character.codePointAt(text, i);
+			i += Character.charCount(codepoint);
+
+			if (codepoint < 0x80) {
+				out.put((byte) codepoint);
+			} else if (codepoint < 0x800) {
+				out.put((byte) (0xC0 | codepoint >> 6));
+				out.put((byte) (0x80 | codepoint & 0x3F));
+			} else if (codepoint < 0x10000) {
+				out.put((byte) (0xE0 | codepoint >> 12));
+				out.put((byte) (0x80 | codepoint >> 6 & 0x3F));
+				out.put((byte) (0x80 | codepoint & 0x3F));
+			} else {
+				out.put((byte) (0xF0 | codepoint >> 18));
+				out.put((byte) (0x80 | codepoint >> 12 & 0x3F));
+				out.put((byte) (0x80 | codepoint >> 6 & 0x3F));
+				out.put((byte) (0x80 | codepoint & 0x3F));
+			}
+		}
+	}
+
+	/**
+	 * Copies the bytes from <code>from</code> to <code>to</code> (exclusive) of the input to the position of the output
+	 */
+	static void copy(@NotNull ByteBuffer in, int from, int to, @NotNull ByteBuffer out) {
+		final int length = to - from;
+		if (in.hasArray() && out.hasArray()) {
+			System.arraycopy(in.array(), in.arrayOffset() + from, out.array(), out.arrayOffset() + out.position(), length);
+			out.position(out.position() + length);
+		} else {
+			for (int i = from; i < to; i++) {
+				out.put(in.get(i));
+			}
+		}
+	}
+
+	/**
+	 * View of ASCII bytes as chars, so shortcodes can be looked up without decoding the buffer
+	 * <br>Non-ASCII bytes are seen as their Latin-1 char, which never matches a multibyte char
+	 */
+	static final class AsciiView implements CharSequence {
+		private final ByteBuffer bytes;
+
+		AsciiView(@NotNull ByteBuffer bytes) {
+			this.bytes = bytes;
+		}
+
+		@Override
+		public int length() {
+			return bytes.limit();
+		}
+
+		@Override
+		public char charAt(int index) {
+			return (char) (bytes.get(index) & 0xFF);
+		}
+
+		@NotNull
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			final StringBuilder sb = new StringBuilder(end - start);
+			for (int i = start; i < end; i++) {
+				sb.append(charAt(i));
+			}
+
+			return sb;
+		}
+
+		@NotNull
+		@Override
+		public String toString() {
+			return subSequence(0, length()).toString();
+		}
+	}
+}
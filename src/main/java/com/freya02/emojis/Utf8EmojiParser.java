@@ -0,0 +1,393 @@
+package com.freya02.emojis;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts and finds emojis directly in UTF-8 bytes, such as messages received from the network, without decoding them to a {@link String}
+ * <br>The results are the same as the ones of {@link EmojiParser} and {@link EmojiRegistry#findAll(CharSequence)} on the decoded text,
+ * except that positions are byte indexes
+ * <p>
+ * Conversions read the remaining bytes of the input buffer and write the result at the position of the output buffer, like a {@link java.nio.charset.CharsetEncoder CharsetEncoder}:
+ * <ul>
+ *     <li>If the whole input has been converted, <code>true</code> is returned and the position of the input is its limit</li>
+ *     <li>If the output is full, <code>false</code> is returned and the position of the input is where the conversion stopped,
+ *     the caller can then drain the output and call the method again with the same input</li>
+ * </ul>
+ * The output must at least be able to hold the longest replacement, such as two <code>:regional_indicator_z:</code> which cannot be separated, or a ZWJ sequence,
+ * 64 bytes are enough for the bundled emojis, an {@link IllegalArgumentException} is thrown if the output is too small
+ * The input must be a whole text, or end at a line break, as a shortcode or an emoji split between two inputs is not recognized
+ * <br>Parsers hold no state besides their registry, they are thread safe
+ *
+ * @see #getDefault()
+ * @see #of(EmojiRegistry)
+ */
+public final class Utf8EmojiParser {
+	private static final Utf8EmojiParser DEFAULT = new Utf8EmojiParser(EmojiRegistry.getDefault());
+
+	private final EmojiRegistry registry;
+
+	private Utf8EmojiParser(EmojiRegistry registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * Returns the parser of the bundled emojis
+	 *
+	 * @return The parser of the default registry
+	 */
+	@NotNull
+	public static Utf8EmojiParser getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Returns a parser of the emojis of the registry
+	 * <br>The parser uses the current emojis of the registry on each call, so it sees reloads
+	 *
+	 * @param registry The registry to take the emojis from
+	 * @return A parser bound to this registry
+	 */
+	@NotNull
+	public static Utf8EmojiParser of(@NotNull EmojiRegistry registry) {
+		return new Utf8EmojiParser(registry);
+	}
+
+	/**
+	 * Retrieves the emoji encoded by the remaining bytes of the buffer, the position of the buffer is not changed
+	 *
+	 * @param bytes The UTF-8 Unicode of the emoji, with or without skin tone
+	 * @return The emoji, or <code>null</code> if the bytes are not exactly one emoji
+	 * @see EmojiRegistry#ofUnicode(String)
+	 */
+	@Nullable
+	public Emoji ofUnicode(@NotNull ByteBuffer bytes) {
+		final UnicodeTrie.Result result = new UnicodeTrie.Result();
+		final int start = bytes.position(), end = bytes.limit();
+		if (registry.getUnicodeTrie().matchExactly(bytes, start, end, result)) {
+			return result.emoji;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Finds all the Unicode emojis in the remaining bytes of the buffer, in a single pass, the position of the buffer is not changed
+	 *
+	 * @param bytes The UTF-8 text to search emojis in
+	 * @return The emojis found in the text along with their byte indexes in the buffer, in order of appearance
+	 * @see EmojiRegistry#findAll(CharSequence)
+	 */
+	@NotNull
+	public List<EmojiMatch> findAll(@NotNull ByteBuffer bytes) {
+		final UnicodeTrie trie = registry.getUnicodeTrie();
+		final UnicodeTrie.Result result = new UnicodeTrie.Result();
+		final List<EmojiMatch> matches = new ArrayList<>();
+
+		final int end = bytes.limit();
+		for (int i = trie.skipToStartByte(bytes, bytes.position(), end); i < end; i = trie.skipToStartByte(bytes, i, end)) {
+			if (trie.match(bytes, i, end, result)) {
+				matches.add(new EmojiMatch(result.emoji, result.fitzpatrick, i, result.end));
+
+				i = result.end;
+			} else {
+				i += Utf8.getLength(Utf8.codePointAt(bytes, i, end));
+			}
+		}
+
+		return matches;
+	}
+
+	/**
+	 * Replaces shortcode emojis to their unicode equivalent, reading UTF-8 from <code>in</code> and writing UTF-8 to <code>out</code>
+	 *
+	 * @param in  The UTF-8 text with shortcode emojis to replace, from its position to its limit
+	 * @param out The buffer to write the UTF-8 text with the emojis shortcode replaced with their unicode
+	 * @return <code>true</code> if the whole input has been converted, <code>false</code> if the output is full
+	 * @see EmojiParser#toUnicode(String)
+	 */
+	public boolean toUnicode(@NotNull ByteBuffer in, @NotNull ByteBuffer out) {
+		final CharSequence view = new Utf8.AsciiView(in);
+		final int maxShortcodeLength = registry.getMaxShortcodeLength();
+		final int end = in.limit();
+
+		int copied = in.position();
+		int open = indexOf(in, ':', copied, end);
+		while (open != -1) {
+			final int close = EmojiParser.findClosingColon(view, open + 1, end, maxShortcodeLength);
+			if (close < 0) {
+				open = indexOf(in, ':', -close, end);
+
+				continue;
+			}
+
+			if (EmojiParser.getCustomTokenPrefixLength(view, copied, open) > 0) {
+				final int tokenEnd = EmojiParser.findCustomTokenEnd(view, close, end);
+				if (tokenEnd > 0) {
+					open = indexOf(in, ':', tokenEnd, end);
+
+					continue;
+				}
+			}
+
+			final Emoji emoji = getByShortcode(in, view, open + 1, close);
+			if (emoji != null) {
+				final Fitzpatrick fitzpatrick = emoji.doesSupportFitzpatrick() ? EmojiParser.findToneSuffix(view, close + 1, end) : null;
+				final int shortcodeEnd = fitzpatrick != null ? close + 1 + Fitzpatrick.SHORTCODE_SUFFIX_LENGTH : close + 1;
+				final String unicode = emoji.unicode(fitzpatrick);
+
+				if (out.remaining() < open - copied + Utf8.getEncodedLength(unicode)) {
+					checkCapacity(out, Utf8.getEncodedLength(unicode));
+					copyPlain(in, copied, open, out);
+
+					return false;
+				}
+
+				Utf8.copy(in, copied, open, out);
+				Utf8.put(out, unicode);
+				copied = shortcodeEnd;
+
+				open = indexOf(in, ':', shortcodeEnd, end);
+			} else {
+				//The closing colon may be the opening colon of a real shortcode, as in "12:30 :joy:"
+				open = close;
+			}
+		}
+
+		return copyPlain(in, copied, end, out);
+	}
+
+	/**
+	 * Replaces unicode emojis to their shortcode equivalent, using the first shortcode of each emoji,
+	 * reading UTF-8 from <code>in</code> and writing UTF-8 to <code>out</code>
+	 *
+	 * @param in  The UTF-8 text with unicode emojis to replace, from its position to its limit
+	 * @param out The buffer to write the UTF-8 text with the emojis unicode replaced with their shortcode
+	 * @return <code>true</code> if the whole input has been converted, <code>false</code> if the output is full
+	 * @see EmojiParser#toShortcodes(String)
+	 */
+	public boolean toShortcodes(@NotNull ByteBuffer in, @NotNull ByteBuffer out) {
+		return toShortcodes(in, out, ShortcodePolicy.FIRST);
+	}
+
+	/**
+	 * Replaces unicode emojis to their shortcode equivalent, reading UTF-8 from <code>in</code> and writing UTF-8 to <code>out</code>
+	 *
+	 * @param in     The UTF-8 text with unicode emojis to replace, from its position to its limit
+	 * @param out    The buffer to write the UTF-8 text with the emojis unicode replaced with their shortcode
+	 * @param policy The policy deciding which shortcode is used when an emoji has multiple
+	 * @return <code>true</code> if the whole input has been converted, <code>false</code> if the output is full
+	 * @see EmojiParser#toShortcodes(String, ShortcodePolicy)
+	 */
+	public boolean toShortcodes(@NotNull ByteBuffer in, @NotNull ByteBuffer out, @NotNull ShortcodePolicy policy) {
+		final UnicodeTrie trie = registry.getUnicodeTrie();
+		final UnicodeTrie.Result result = new UnicodeTrie.Result();
+		final int end = in.limit();
+
+		//Where the conversion was before the last unpaired regional indicator, it must not stop between it and the next one
+		int pairStart = -1, pairOutStart = -1;
+
+		int copied = in.position();
+		for (int i = trie.skipToStartByte(in, copied, end); i < end; i = trie.skipToStartByte(in, i, end)) {
+			final boolean secondOfPair = i == result.unpairedRegionalIndicator;
+			if (!trie.match(in, i, end, result)) {
+				i += Utf8.getLength(Utf8.codePointAt(in, i, end));
+
+				continue;
+			}
+
+			if (result.unpairedRegionalIndicator != -1) {
+				//Flush the text before the pair, so rolling back to the first indicator does not discard it
+				if (!copyPlain(in, copied, i, out)) return false;
+
+				copied = i;
+				pairStart = i;
+				pairOutStart = out.position();
+			}
+
+			final String shortcode = policy.getShortcode(registry.getShortcodes(result.emoji));
+			if (shortcode != null) {
+				final int shortcodeLength = Utf8.getEncodedLength(shortcode) + 2;
+				final int toneLength = result.fitzpatrick != null ? Fitzpatrick.SHORTCODE_SUFFIX_LENGTH : 0;
+				if (out.remaining() < i - copied + shortcodeLength + toneLength) {
+					if (secondOfPair) {
+						checkCapacity(out, out.position() - pairOutStart + shortcodeLength);
+
+						in.position(pairStart);
+						out.position(pairOutStart);
+
+						return false;
+					}
+
+					checkCapacity(out, shortcodeLength + toneLength);
+					copyPlain(in, copied, i, out);
+
+					return false;
+				}
+
+				Utf8.copy(in, copied, i, out);
+				out.put((byte) ':');
+				Utf8.put(out, shortcode);
+				out.put((byte) ':');
+				if (result.fitzpatrick != null) {
+					out.put((byte) ':');
+					Utf8.put(out, result.fitzpatrick.getShortcode());
+					out.put((byte) ':');
+				}
+
+				copied = result.end;
+			}
+
+			i = result.end;
+		}
+
+		return copyPlain(in, copied, end, out);
+	}
+
+	/**
+	 * Removes the unicode emojis, reading UTF-8 from <code>in</code> and writing UTF-8 to <code>out</code>
+	 *
+	 * @param in  The UTF-8 text with unicode emojis to remove, from its position to its limit
+	 * @param out The buffer to write the UTF-8 text without the emojis
+	 * @return <code>true</code> if the whole input has been converted, <code>false</code> if the output is full
+	 * @see EmojiParser#stripEmojis(String)
+	 */
+	public boolean stripEmojis(@NotNull ByteBuffer in, @NotNull ByteBuffer out) {
+		final UnicodeTrie trie = registry.getUnicodeTrie();
+		final UnicodeTrie.Result result = new UnicodeTrie.Result();
+		final int end = in.limit();
+
+		//Removed emojis take no room, so the conversion never stops between two regional indicators
+		int copied = in.position();
+		for (int i = trie.skipToStartByte(in, copied, end); i < end; i = trie.skipToStartByte(in, i, end)) {
+			if (!trie.match(in, i, end, result)) {
+				i += Utf8.getLength(Utf8.codePointAt(in, i, end));
+
+				continue;
+			}
+
+			if (!copyPlain(in, copied, i, out)) return false;
+
+			copied = result.end;
+			i = result.end;
+		}
+
+		return copyPlain(in, copied, end, out);
+	}
+
+	/**
+	 * Keeps only the unicode emojis, reading UTF-8 from <code>in</code> and writing UTF-8 to <code>out</code>
+	 *
+	 * @param in  The UTF-8 text to take the unicode emojis from, from its position to its limit
+	 * @param out The buffer to write the UTF-8 emojis
+	 * @return <code>true</code> if the whole input has been converted, <code>false</code> if the output is full
+	 * @see EmojiParser#extractEmojis(String)
+	 */
+	public boolean extractEmojis(@NotNull ByteBuffer in, @NotNull ByteBuffer out) {
+		final UnicodeTrie trie = registry.getUnicodeTrie();
+		final UnicodeTrie.Result result = new UnicodeTrie.Result();
+		final int end = in.limit();
+
+		//Where the last unpaired regional indicator was, the conversion must not stop between it and the next one
+		int pairStart = -1, pairOutStart = -1;
+
+		for (int i = trie.skipToStartByte(in, in.position(), end); i < end; i = trie.skipToStartByte(in, i, end)) {
+			final boolean secondOfPair = i == result.unpairedRegionalIndicator;
+			if (!trie.match(in, i, end, result)) {
+				i += Utf8.getLength(Utf8.codePointAt(in, i, end));
+
+				continue;
+			}
+
+			if (result.unpairedRegionalIndicator != -1) {
+				pairStart = i;
+				pairOutStart = out.position();
+			}
+
+			if (out.remaining() < result.end - i) {
+				if (secondOfPair) {
+					checkCapacity(out, out.position() - pairOutStart + result.end - i);
+
+					in.position(pairStart);
+					out.position(pairOutStart);
+				} else {
+					checkCapacity(out, result.end - i);
+					in.position(i);
+				}
+
+				return false;
+			}
+
+			Utf8.copy(in, i, result.end, out);
+			i = result.end;
+		}
+
+		in.position(end);
+
+		return true;
+	}
+
+	/**
+	 * Looks up the shortcode between <code>start</code> and <code>end</code>, only decoding it if it is not ASCII
+	 */
+	private Emoji getByShortcode(ByteBuffer in, CharSequence view, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (in.get(i) < 0) {
+				final String shortcode = StandardCharsets.UTF_8.decode(in.duplicate().position(start).limit(end)).toString();
+
+				return registry.getByShortcode(shortcode, 0, shortcode.length());
+			}
+		}
+
+		return registry.getByShortcode(view, start, end);
+	}
+
+	/**
+	 * Copies the plain bytes from <code>from</code> to <code>to</code>, or as many as the output can take,
+	 * and moves the input to the first byte which was not copied
+	 *
+	 * @return <code>true</code> if all the bytes were copied
+	 */
+	private static boolean copyPlain(ByteBuffer in, int from, int to, ByteBuffer out) {
+		if (out.remaining() >= to - from) {
+			Utf8.copy(in, from, to, out);
+			in.position(to);
+
+			return true;
+		}
+
+		//Do not stop after what may be the start of a custom emoji token, the next call could not see it
+		int cut = from + out.remaining();
+		if (cut > from && in.get(cut - 1) == '<') {
+			cut--;
+		} else if (cut - 1 > from && in.get(cut - 1) == 'a' && in.get(cut - 2) == '<') {
+			cut -= 2;
+		}
+
+		Utf8.copy(in, from, cut, out);
+		in.position(cut);
+
+		return false;
+	}
+
+	/**
+	 * Checks that an output buffer, once drained, can hold a replacement which must be written at once, or the caller could never make progress
+	 */
+	private static void checkCapacity(ByteBuffer out, int required) {
+		if (out.capacity() < required)
+			throw new IllegalArgumentException("Output buffer of " + out.capacity() + " bytes cannot hold a replacement of " + required + " bytes");
+	}
+
+	private static int indexOf(ByteBuffer bytes, char c, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (bytes.get(i) == c) return i;
+		}
+
+		return -1;
+	}
+}
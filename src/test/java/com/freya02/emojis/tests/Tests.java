@@ -1,36 +1,394 @@
 package com.freya02.emojis.tests;
 
+import com.freya02.emojis.CustomEmoji;
+import com.freya02.emojis.CustomEmojiRegistry;
 import com.freya02.emojis.Emoji;
+import com.freya02.emojis.EmojiConstants;
+import com.freya02.emojis.EmojiDocument;
+import com.freya02.emojis.EmojiDocumentChange;
+import com.freya02.emojis.EmojiFileTranscoder;
+import com.freya02.emojis.EmojiIntMap;
+import com.freya02.emojis.EmojiMatch;
 import com.freya02.emojis.EmojiParser;
+import com.freya02.emojis.EmojiRegistry;
+import com.freya02.emojis.EmojiSearch;
+import com.freya02.emojis.EmojiSegmenter;
+import com.freya02.emojis.EmojiSet;
+import com.freya02.emojis.EmojiStore;
+import com.freya02.emojis.EmojiTransform;
+import com.freya02.emojis.EmojiTransformProcessor;
 import com.freya02.emojis.Emojis;
+import com.freya02.emojis.Fitzpatrick;
+import com.freya02.emojis.MappedEmojiTable;
+import com.freya02.emojis.ReloadableEmojiRegistry;
+import com.freya02.emojis.ShortcodeCompleter;
+import com.freya02.emojis.ShortcodePolicy;
+import com.freya02.emojis.TonedEmoji;
 import com.freya02.emojis.TwemojiType;
-import org.junit.jupiter.api.BeforeAll;
+import com.freya02.emojis.Utf8EmojiParser;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.TestInstance;
 
-import java.lang.reflect.Field;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class Tests {
-	private Pattern shortcodePattern;
+	@Test
+	public void toUnicodeTest() {
+		assertEquals("foo \uD83D\uDE02 bar", EmojiParser.toUnicode("foo :joy: bar"));
+		assertEquals("foo \uD83D\uDE02 \uD83D\uDE20 bar", EmojiParser.toUnicode("foo :joy: :angry: bar"));
+		assertEquals("at 12:30 \uD83D\uDE02", EmojiParser.toUnicode("at 12:30 :joy:"));
+		assertEquals(":\uD83D\uDE02:", EmojiParser.toUnicode("::joy::"));
+		assertEquals(":jo\ny:", EmojiParser.toUnicode(":jo\ny:"));
+		assertEquals("<:joy:123> <a:joy:456> <b\uD83D\uDE02789> \uD83D\uDE02", EmojiParser.toUnicode("<:joy:123> <a:joy:456> <b:joy:789> :joy:"));
+		assertEquals("<\uD83D\uDE02abc>", EmojiParser.toUnicode("<:joy:abc>"));
+
+		final String noEmojis = "fe80::1ff:fe23:4567:890a";
+		assertSame(noEmojis, EmojiParser.toUnicode(noEmojis));
+	}
 
-	@BeforeAll
-	public void setup() throws NoSuchFieldException, IllegalAccessException {
-		final Field shortcodePatternField = EmojiParser.class.getDeclaredField("SHORTCODE_PATTERN");
-		shortcodePatternField.setAccessible(true);
+	@Test
+	public void toUnicodeStreamTest() throws IOException {
+		final StringBuilder input = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			input.append("foo :joy: 12:30 :flag_fr::angry: ::cow2:\n:unknown_shortcode: :raised_hand_with_fingers_splayed::skin-tone-5: <:joy:123456789> <a:cow:42>");
+		}
+
+		final String text = input.toString();
+		for (int chunkSize : new int[]{1, 3, 7, 8192}) {
+			//Returns at most chunkSize chars per read, so shortcodes get split across reads
+			final Reader reader = new StringReader(text) {
+				@Override
+				public int read(char[] cbuf, int off, int len) throws IOException {
+					return super.read(cbuf, off, Math.min(len, chunkSize));
+				}
+			};
 
-		shortcodePattern = (Pattern) shortcodePatternField.get(null);
+			final StringWriter writer = new StringWriter();
+			EmojiParser.toUnicode(reader, writer);
+
+			assertEquals(EmojiParser.toUnicode(text), writer.toString(), () -> "Chunk size: " + chunkSize);
+		}
 	}
 
 	@Test
-	public void toUnicodeTest() {
-		assertEquals("foo \uD83D\uDE02 bar", EmojiParser.toUnicode("foo :joy: bar"));
-		assertEquals("foo \uD83D\uDE02 \uD83D\uDE20 bar", EmojiParser.toUnicode("foo :joy: :angry: bar"));
+	public void toShortcodesTest() {
+		assertEquals("foo :joy: bar", EmojiParser.toShortcodes("foo \uD83D\uDE02 bar"));
+		assertEquals(":flag_fr::angry:", EmojiParser.toShortcodes("\uD83C\uDDEB\uD83C\uDDF7\uD83D\uDE20"));
+		assertEquals(":thumbsup:", EmojiParser.toShortcodes("\uD83D\uDC4D", ShortcodePolicy.FIRST));
+		assertEquals(":+1:", EmojiParser.toShortcodes("\uD83D\uDC4D", ShortcodePolicy.SHORTEST));
+		assertEquals(":thumbsup:", EmojiParser.toShortcodes("\uD83D\uDC4D", ShortcodePolicy.DISCORD));
+
+		final String noEmojis = "no emojis: here";
+		assertSame(noEmojis, EmojiParser.toShortcodes(noEmojis));
+		final String keycapStarts = "#1 at 12:30, \u00E9t\u00E9 \uD835\uDC00";
+		assertSame(keycapStarts, EmojiParser.toShortcodes(keycapStarts));
+		assertEquals(0, Emojis.countEmojis(keycapStarts));
+
+		for (Emoji emoji : Emojis.getEmojis()) {
+			assertEquals(emoji.unicode(), EmojiParser.toUnicode(EmojiParser.toShortcodes(emoji.unicode())));
+		}
+	}
+
+	@Test
+	public void fitzpatrickTest() {
+		final Emoji thumbsup = Emojis.ofShortcode("thumbsup");
+		final Emoji detective = Emojis.ofShortcode("man_detective");
+		final String tonedThumbsup = "\uD83D\uDC4D\uD83C\uDFFD";
+		final String tonedDetective = "\uD83D\uDD75\uD83C\uDFFB\u200D\u2642\uFE0F";
+
+		assertEquals(tonedThumbsup, thumbsup.unicode(Fitzpatrick.TYPE_4));
+		assertEquals(tonedDetective, detective.unicode(Fitzpatrick.TYPE_1_2));
+
+		assertNull(Emojis.ofUnicode(tonedThumbsup));
+		final TonedEmoji tonedEmoji = Emojis.ofTonedUnicode(tonedThumbsup);
+		assertNotNull(tonedEmoji);
+		assertEquals(thumbsup, tonedEmoji.getEmoji());
+		assertEquals(Fitzpatrick.TYPE_4, tonedEmoji.getFitzpatrick());
+		assertEquals(Fitzpatrick.TYPE_1_2, Emojis.ofTonedUnicode(tonedDetective).getFitzpatrick());
+		assertNull(Emojis.ofTonedUnicode("\uD83D\uDE02\uD83C\uDFFD")); //joy does not support fitzpatrick
+
+		assertEquals("foo " + tonedThumbsup + " bar", EmojiParser.toUnicode("foo :thumbsup::skin-tone-3: bar"));
+		assertEquals("\uD83D\uDE02:skin-tone-3:", EmojiParser.toUnicode(":joy::skin-tone-3:"));
+		assertEquals(":thumbsup::skin-tone-3: :man_detective::skin-tone-1:", EmojiParser.toShortcodes(tonedThumbsup + " " + tonedDetective));
+	}
+
+	@Test
+	public void idTest() {
+		int expectedId = 0;
+		for (Emoji emoji : Emojis.getEmojis()) {
+			assertEquals(expectedId++, emoji.getId());
+			assertSame(emoji, Emojis.byId(emoji.getId()));
+		}
+
+		assertNull(Emojis.byId(-1));
+		assertNull(Emojis.byId(Emojis.getEmojis().size()));
+
+		final Emoji joy = Emojis.ofShortcode("joy"), angry = Emojis.ofShortcode("angry");
+
+		final EmojiSet set = new EmojiSet();
+		assertTrue(set.add(joy));
+		assertFalse(set.add(joy));
+		assertTrue(set.add(angry));
+		assertEquals(Set.of(joy, angry), set);
+		assertTrue(set.remove(joy));
+		assertEquals(Set.of(angry), set);
+
+		final EmojiIntMap map = new EmojiIntMap();
+		map.add(joy, 2);
+		map.add(joy, 3);
+		assertEquals(5, map.get(joy));
+		assertEquals(0, map.get(angry));
+	}
+
+	@Test
+	public void storeTest() throws IOException {
+		final Path path = Files.createTempFile("JEmojis", ".json");
+		try {
+			final EmojiStore store = new EmojiStore();
+			store.getEmojis().addAll(Emojis.getEmojis());
+			store.save(path);
+
+			assertEquals(Emojis.getEmojis(), EmojiStore.load(path).getEmojis());
+			assertEquals(Emojis.getEmojis(), EmojiStore.load(path, 1).getEmojis());
+			assertEquals(List.copyOf(Emojis.getEmojis()), List.copyOf(EmojiStore.load(path, 4096).getEmojis()));
+		} finally {
+			Files.delete(path);
+		}
+
+		assertTrue(EmojiStore.load(path).getEmojis().isEmpty());
+	}
+
+	@Test
+	public void registryTest() throws IOException, InterruptedException {
+		final Path path = Files.createTempFile("JEmojis", ".json");
+		try {
+			final EmojiStore store = new EmojiStore();
+			store.getEmojis().add(Emojis.ofShortcode("joy"));
+			store.save(path);
+
+			try (ReloadableEmojiRegistry registry = EmojiRegistry.load(path)) {
+				final Set<Emoji> oldEmojis = registry.getEmojis();
+				assertEquals(1, oldEmojis.size());
+				assertEquals(Emojis.ofShortcode("joy"), registry.ofShortcode(":joy:"));
+				assertNull(registry.ofShortcode("angry"));
+
+				store.getEmojis().add(Emojis.ofShortcode("angry"));
+				store.save(path);
+				registry.reload();
+
+				assertEquals(1, oldEmojis.size());
+				assertEquals(2, registry.getEmojis().size());
+				assertEquals(Emojis.ofShortcode("angry"), registry.ofUnicode("\uD83D\uDE20"));
+				assertEquals(Emojis.ofShortcode("angry"), registry.byId(1));
+
+				//Registry emojis have no ID, so they cannot be mistaken for another emoji of Emojis
+				final Emoji registryAngry = registry.byId(1);
+				assertEquals(-1, registryAngry.getId());
+				assertFalse(new EmojiSet().contains(registryAngry));
+				assertThrows(IndexOutOfBoundsException.class, () -> new EmojiSet().add(registryAngry));
+				assertThrows(IllegalArgumentException.class, () -> new EmojiIntMap().add(registryAngry, 1));
+				assertEquals(0, new EmojiIntMap().get(registryAngry));
+				assertEquals(List.of("joy"), ShortcodeCompleter.of(registry).complete("jo", 3, new EmojiIntMap()::get));
+				assertEquals(2, registry.findAll("\uD83D\uDE02\uD83D\uDE20").size());
+
+				//A malformed file is rejected, without stopping the watcher
+				registry.startWatching();
+				Files.writeString(path, "{\"emojis\":[{\"subpage\":\"joy\",\"unicode\":\"\uD83D\uDE02\",\"shortcodes\":\"oops\"}]}");
+				assertThrows(IOException.class, registry::reload);
+				Thread.sleep(500);
+				assertEquals(2, registry.getEmojis().size());
+
+				store.getEmojis().add(Emojis.ofShortcode("cow2"));
+				store.save(path);
+				final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+				while (registry.getEmojis().size() != 3 && System.nanoTime() < deadline) {
+					Thread.sleep(20);
+				}
+				assertEquals(Emojis.ofShortcode("cow2"), registry.ofShortcode("cow2"));
+
+				Files.delete(path);
+				assertThrows(IOException.class, registry::reload);
+				assertEquals(3, registry.getEmojis().size());
+			}
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	public void overlayTest() {
+		final EmojiRegistry slack = EmojiRegistry.getDefault().overlay(Map.of("thumbs_up", "thumbsup", "laughing_crying", "joy"));
+		final EmojiRegistry custom = slack.overlay(Map.of("lol", "laughing_crying"));
+
+		assertSame(Emojis.ofShortcode("thumbsup"), slack.ofShortcode(":thumbs_up:"));
+		assertSame(Emojis.ofShortcode("thumbsup"), slack.ofShortcode("+1"));
+		assertSame(Emojis.ofShortcode("joy"), custom.ofShortcode("lol"));
+		assertNull(EmojiRegistry.getDefault().ofShortcode("thumbs_up"));
+		assertSame(Emojis.getEmojis(), custom.getEmojis());
+
+		assertEquals("\uD83D\uDC4D\uD83C\uDFFD \uD83D\uDE02", slack.toUnicode(":thumbs_up::skin-tone-3: :laughing_crying:"));
+		assertEquals(":thumbs_up: :laughing_crying:", slack.toShortcodes("\uD83D\uDC4D \uD83D\uDE02"));
+		assertEquals(":lol: :+1:", custom.toShortcodes("\uD83D\uDE02 \uD83D\uDC4D", ShortcodePolicy.SHORTEST));
+		assertEquals(":thumbsup:", EmojiParser.toShortcodes("\uD83D\uDC4D"));
+
+		final StringBuilder out = new StringBuilder();
+		assertDoesNotThrow(() -> custom.toUnicode(new StringReader(":lol: :joy:"), out));
+		assertEquals("\uD83D\uDE02 \uD83D\uDE02", out.toString());
+
+		assertThrows(IllegalArgumentException.class, () -> slack.overlay(Map.of("foo", "unknown_shortcode")));
+		assertThrows(IllegalArgumentException.class, () -> slack.overlay(Map.of("foo:bar", "joy")));
+	}
+
+	@Test
+	public void customEmojiTest() throws IOException {
+		final CustomEmojiRegistry customEmojis = new CustomEmojiRegistry();
+		final CustomEmoji pepe = new CustomEmoji("pepe", 123, false);
+		customEmojis.setEmojis(1, List.of(pepe, new CustomEmoji("joy", 456, false)));
+		customEmojis.putEmoji(1, new CustomEmoji("party", 789, true));
+
+		assertEquals(pepe, customEmojis.ofName(1, ":pepe:"));
+		assertNull(customEmojis.ofName(2, "pepe"));
+		assertEquals("<:pepe:123> <a:party:789> \uD83D\uDE02 <:kekw:1> :unknown:", EmojiParser.toUnicode(":pepe: :party: :joy: <:kekw:1> :unknown:", customEmojis, 1));
+		assertEquals(":pepe: \uD83D\uDE02", EmojiParser.toUnicode(":pepe: :joy:", customEmojis, 2));
+
+		final String text = ":pepe: 12:30 :party: :joy: <a:pepe:1> :pepe::skin-tone-1:\n".repeat(200);
+		for (int chunkSize : new int[]{1, 3, 8192}) {
+			final Reader reader = new StringReader(text) {
+				@Override
+				public int read(char[] cbuf, int off, int len) throws IOException {
+					return super.read(cbuf, off, Math.min(len, chunkSize));
+				}
+			};
+
+			final StringWriter writer = new StringWriter();
+			EmojiParser.toUnicode(reader, writer, customEmojis, 1);
+
+			assertEquals(EmojiParser.toUnicode(text, customEmojis, 1), writer.toString(), () -> "Chunk size: " + chunkSize);
+		}
+
+		customEmojis.removeEmoji(1, 123);
+		assertEquals(":pepe:", EmojiParser.toUnicode(":pepe:", customEmojis, 1));
+		assertEquals(2, customEmojis.getEmojis(1).size());
+
+		assertThrows(IllegalArgumentException.class, () -> new CustomEmoji("a:b", 1, false));
+	}
+
+	@Test
+	public void completerTest() {
+		final ShortcodeCompleter completer = ShortcodeCompleter.getDefault();
+
+		assertEquals(List.of("joy", "joy_cat"), completer.complete(":jo", 2));
+		assertEquals(List.of("joy", "joy_cat", "joystick"), completer.complete("JOY", 5));
+		assertTrue(completer.complete("thumbs", 10).containsAll(List.of("thumbsup", "thumbsdown")));
+		assertTrue(completer.complete("unknown_prefix", 10).isEmpty());
+		assertTrue(completer.complete("jo", 0).isEmpty());
+		assertEquals(Emojis.getEmojis().stream().mapToInt(e -> e.shortcodes().size()).sum(), completer.complete("", Integer.MAX_VALUE).size());
+
+		final EmojiIntMap usages = new EmojiIntMap();
+		usages.add(Emojis.ofShortcode("joy_cat"), 5);
+		assertEquals(List.of("joy_cat", "joy"), completer.complete("jo", 2, usages::get));
+
+		final EmojiRegistry slack = EmojiRegistry.getDefault().overlay(Map.of("laughing_crying", "joy"));
+		assertEquals(List.of("laughing_crying"), ShortcodeCompleter.of(slack).complete("laughing_c", 5));
+	}
+
+	@Test
+	public void searchTest() throws IOException {
+		final EmojiSearch search = EmojiSearch.getDefault();
+
+		assertEquals(Emojis.ofShortcode("thumbsup"), search.search("thumsup", 5).get(0));
+		assertEquals(Emojis.ofShortcode("thumbsup"), search.search(":THUMBSUP:", 5).get(0));
+		assertEquals(Emojis.ofShortcode("joy"), search.search("joy", 5).get(0));
+		assertEquals(Emojis.ofShortcode("innocent"), search.search("smiling face with halo", 5).get(0));
+		assertEquals(Emojis.ofShortcode("innocent"), search.search("sm\u00EEling f\u00E1ce with h\u00E4lo", 5).get(0));
+		assertTrue(search.search("halo", 10).contains(Emojis.ofShortcode("innocent")));
+		assertTrue(search.search("zzzzzzzz", 5).isEmpty());
+		assertEquals(3, search.search("face", 3).size());
+
+		//Emojis without shortcodes are found by name
+		final Path path = Files.createTempFile("JEmojis", ".json");
+		try {
+			final EmojiStore store = new EmojiStore();
+			store.getEmojis().add(new Emoji("face-with-tears-of-joy", "\uD83D\uDE02", List.of(), false));
+			store.getEmojis().add(Emojis.ofShortcode("angry"));
+			store.save(path);
+
+			try (ReloadableEmojiRegistry registry = EmojiRegistry.load(path)) {
+				final EmojiSearch registrySearch = EmojiSearch.of(registry);
+				assertEquals("\uD83D\uDE02", registrySearch.search("tears of joy", 5).get(0).unicode());
+				assertEquals(Emojis.ofShortcode("angry"), registrySearch.search("angry", 5).get(0));
+			}
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	@Test
+	public void mappedTableTest() throws IOException {
+		final MappedEmojiTable table = MappedEmojiTable.openLocal();
+		assertSame(table, MappedEmojiTable.openLocal());
+		assertEquals(Emojis.getEmojis().size(), table.size());
+
+		for (Emoji emoji : Emojis.getEmojis()) {
+			assertEquals(emoji, table.byId(emoji.getId()));
+			assertSame(table.byId(emoji.getId()), table.ofUnicode(emoji.unicode()));
+			for (String variant : new String[]{"\uFE0F", "\uFE0E", "\u200D", "\uFE0F\u200D", "\u200D\uFE0F"}) {
+				assertEquals(Emojis.ofUnicode(emoji.unicode() + variant), table.ofUnicode(emoji.unicode() + variant));
+			}
+			for (String shortcode : emoji.shortcodes()) {
+				assertSame(table.byId(emoji.getId()), table.ofShortcode(shortcode));
+			}
+		}
+
+		assertEquals(Emojis.ofShortcode("relaxed"), table.ofUnicode("\u263A"));
+		assertNull(table.ofUnicode("a"));
+		assertNull(table.ofUnicode("\uFE0F\u263A"));
+		assertNull(table.ofShortcode(":unknown_shortcode:"));
+	}
+
+	@Test
+	public void constantsTest() {
+		assertSame(Emojis.ofShortcode("joy"), EmojiConstants.JOY);
+		assertSame(Emojis.ofShortcode("+1"), EmojiConstants.THUMBSUP);
+		assertSame(Emojis.ofShortcode("100"), EmojiConstants._100);
+		assertEquals(List.copyOf(Emojis.getEmojis()), EmojiConstants.values());
+
+		for (Emoji emoji : EmojiConstants.values()) {
+			assertSame(emoji, EmojiConstants.ofUnicode(emoji.unicode()));
+			assertSame(emoji, EmojiConstants.ofUnicode(emoji.unicode().replace("\uFE0F", "")));
+			for (String variant : new String[]{"\uFE0F", "\uFE0E", "\u200D", "\uFE0F\u200D"}) {
+				assertSame(Emojis.ofUnicode(emoji.unicode() + variant), EmojiConstants.ofUnicode(emoji.unicode() + variant));
+			}
+			for (String shortcode : emoji.shortcodes()) {
+				assertSame(emoji, EmojiConstants.ofShortcode(shortcode));
+			}
+		}
+
+		assertEquals(EmojiConstants.JOY, EmojiConstants.ofShortcode(":joy:"));
+		assertNull(EmojiConstants.ofShortcode("unknown_shortcode"));
+		assertNull(EmojiConstants.ofUnicode("a"));
+		assertNull(EmojiConstants.ofUnicode(""));
+		assertNull(EmojiConstants.ofUnicode("\uFE0F"));
 	}
 
 	@Test
@@ -51,15 +409,346 @@ public class Tests {
 		assertNotNull(Emojis.ofUnicode("\uD83D\uDD1F"));
 		assertNotNull(Emojis.ofUnicode("\uD83D\uDC2E"));
 		assertNotNull(Emojis.ofUnicode("\uD83D\uDC04"));
+
+		//Variation selectors and trailing zero width joiners are ignored
+		final Emoji relaxed = Emojis.ofShortcode("relaxed");
+		assertEquals(relaxed, Emojis.ofUnicode("\u263A"));
+		assertEquals(relaxed, Emojis.ofUnicode("\u263A\uFE0F"));
+		assertEquals(relaxed, Emojis.ofUnicode("\u263A\uFE0E"));
+		assertEquals(relaxed, Emojis.ofUnicode("\u263A\uFE0F\u200D"));
+		assertEquals(Emojis.ofShortcode("man_detective"), Emojis.ofUnicode("\uD83D\uDD75\u200D\u2642"));
+		assertNull(Emojis.ofUnicode("\uFE0F"));
+
+		//In running text, text default symbols need VS16, and VS15 asks for the text presentation
+		final List<EmojiMatch> matches = Emojis.findAll("\u263A\uFE0F\u263A \u263A\uFE0E \u261D\uD83C\uDFFD");
+		assertEquals(2, matches.size());
+		assertMatch(matches.get(0), "relaxed", 0, 2);
+		assertMatch(matches.get(1), "point_up", 7, 10);
+		assertEquals("Copyright \u00A9 2021 ACME\u2122, 1 \u2194 2 \u2122\uFE0E", EmojiParser.toShortcodes("Copyright \u00A9 2021 ACME\u2122, 1 \u2194 2 \u2122\uFE0E"));
+		assertEquals(":copyright: :heart_on_fire: :watch:", EmojiParser.toShortcodes("\u00A9\uFE0F \u2764\u200D\uD83D\uDD25 \u231A"));
+		assertEquals(0, Utf8EmojiParser.getDefault().findAll(utf8("\u00A9 \u2122\uFE0E")).size());
+		assertEquals(Emojis.ofShortcode("copyright"), Utf8EmojiParser.getDefault().ofUnicode(utf8("\u00A9")));
+	}
+
+	@Test
+	public void findAllTest() {
+		final List<EmojiMatch> matches = Emojis.findAll("foo \uD83D\uDE02 bar \uD83C\uDDEB\uD83C\uDDF7\uD83D\uDE20");
+
+		assertEquals(3, matches.size());
+		assertMatch(matches.get(0), "joy", 4, 6);
+		assertMatch(matches.get(1), "flag_fr", 11, 15);
+		assertMatch(matches.get(2), "angry", 15, 17);
+		assertTrue(Emojis.findAll("no emojis: here").isEmpty());
+	}
+
+	@Test
+	public void segmenterTest() {
+		final String text = "hi \uD83D\uDE02\uD83D\uDC4D\uD83C\uDFFD :joy: <:joy:123> :thumbsup::skin-tone-3:";
+
+		final StringBuilder segments = new StringBuilder();
+		final EmojiSegmenter segmenter = EmojiRegistry.getDefault().segment(text, true);
+		while (segmenter.next()) {
+			if (segmenter.isEmoji()) {
+				segments.append('[').append(segmenter.getEmoji().shortcodes().get(0));
+				if (segmenter.getFitzpatrick() != null) segments.append('/').append(segmenter.getFitzpatrick().name());
+				if (segmenter.isShortcode()) segments.append("/sc");
+				segments.append(']');
+			} else {
+				segments.append('"').append(text, segmenter.getStart(), segmenter.getEnd()).append('"');
+			}
+		}
+		assertEquals("\"hi \"[joy][thumbsup/TYPE_4]\" \"[joy/sc]\" <:joy:123> \"[thumbsup/TYPE_4/sc]", segments.toString());
+
+		//Unicode only, segments cover the whole text
+		segmenter.reset("a\uD83D\uDE02b");
+		assertTrue(segmenter.next());
+		assertEquals(1, segmenter.getEnd());
+		assertFalse(segmenter.isEmoji());
+		assertTrue(segmenter.next());
+		assertMatch(segmenter.toMatch(), "joy", 1, 3);
+		assertTrue(segmenter.next());
+		assertThrows(IllegalStateException.class, segmenter::toMatch);
+		assertFalse(segmenter.next());
+
+		assertEquals(2, Emojis.countEmojis(text));
+		assertEquals(0, Emojis.countEmojis(":joy: no emojis"));
+		assertEquals(4, EmojiRegistry.getDefault().segment(text, true).countEmojis());
+	}
+
+	@Test
+	public void documentTest() {
+		final EmojiDocument document = EmojiDocument.of(EmojiRegistry.getDefault(), "hi \uD83D\uDC4D and :jo", true);
+		assertEquals(1, document.getEmojis().size());
+
+		//Completing a shortcode only adds it
+		EmojiDocumentChange change = document.edit(document.getText().length(), 0, "y:");
+		assertTrue(change.getRemoved().isEmpty());
+		assertEquals(1, change.getAdded().size());
+		assertMatch(change.getAdded().get(0), "joy", 10, 15);
+
+		//Adding a skin tone replaces the emoji, the following one only moves
+		change = document.edit(5, 0, Fitzpatrick.TYPE_3.unicode());
+		assertEquals(1, change.getRemoved().size());
+		assertMatch(change.getRemoved().get(0), "thumbsup", 3, 5);
+		assertEquals(1, change.getAdded().size());
+		assertEquals(Fitzpatrick.TYPE_3, change.getAdded().get(0).getFitzpatrick());
+		assertMatch(document.getEmojis().get(1), "joy", 12, 17);
+
+		//Typing in plain text changes nothing
+		assertTrue(document.edit(10, 0, "d").isEmpty());
+		assertEquals("hi \uD83D\uDC4D\uD83C\uDFFC andd :joy:", document.getText().toString());
+
+		//Same emojis as a full scan
+		final EmojiDocument flags = EmojiDocument.of(EmojiRegistry.getDefault(), "\uD83C\uDDEB\uD83C\uDDF7\uD83C\uDDE6\uD83C\uDDFA");
+		flags.edit(0, 2, "");
+		assertEquals(Emojis.findAll(flags.getText()), flags.getEmojis());
+
+		assertThrows(IllegalArgumentException.class, () -> document.edit(5, 100, ""));
+	}
+
+	@Test
+	public void utf8Test() {
+		final Utf8EmojiParser parser = Utf8EmojiParser.getDefault();
+		final String text = "caf\u00E9 \uD83D\uDE02 <:joy:123> \uD83D\uDC4D\uD83C\uDFFD :pi\u00F1ata: \uD83C\uDDEB\uD83C\uDDF7";
+
+		final ByteBuffer shortcodes = ByteBuffer.allocate(256);
+		assertTrue(parser.toShortcodes(utf8(text), shortcodes));
+		assertEquals(EmojiParser.toShortcodes(text), new String(shortcodes.array(), 0, shortcodes.position(), StandardCharsets.UTF_8));
+
+		final ByteBuffer unicode = ByteBuffer.allocateDirect(256);
+		assertTrue(parser.toUnicode(shortcodes.flip(), unicode));
+		assertEquals(EmojiParser.toUnicode(EmojiParser.toShortcodes(text)), StandardCharsets.UTF_8.decode(unicode.flip()).toString());
+
+		//Small outputs, the conversion stops before what does not fit, and resumes, chunks may end inside a multibyte char
+		final String regionalIndicators = "x".repeat(40) + "\uD83C\uDDFF\uD83C\uDDFA caf\u00E9 \uD83C\uDDFF\uD83C\uDDFF\uD83C\uDDE6\uD83C\uDDFA";
+		for (String str : List.of(text, text.repeat(5), regionalIndicators)) {
+			for (int size = 64; size <= 80; size++) {
+				assertEquals(EmojiParser.toShortcodes(str), toShortcodesInChunks(parser, str, size), "Output of " + size + " bytes");
+			}
+		}
+		assertThrows(IllegalArgumentException.class, () -> toShortcodesInChunks(parser, regionalIndicators, 16));
+
+		//Byte positions
+		final List<EmojiMatch> matches = parser.findAll(utf8(text));
+		assertEquals(3, matches.size());
+		assertMatch(matches.get(0), "joy", 6, 10);
+		assertEquals(Emojis.ofShortcode("thumbsup"), parser.ofUnicode(utf8("\uD83D\uDC4D\uFE0F")));
+		assertNull(parser.ofUnicode(utf8("\uD83D\uDC4D ")));
+	}
+
+	private static ByteBuffer utf8(CharSequence text) {
+		return ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String toShortcodesInChunks(Utf8EmojiParser parser, String text, int outputSize) {
+		final ByteBuffer in = utf8(text);
+		final ByteBuffer out = ByteBuffer.allocate(outputSize);
+		final ByteArrayOutputStream converted = new ByteArrayOutputStream();
+		for (int calls = 0; ; calls++) {
+			assertTrue(calls < text.length() * 4, "No progress");
+
+			final boolean done = parser.toShortcodes(in, out);
+			converted.write(out.array(), 0, out.position());
+			out.clear();
+			if (done) break;
+		}
+
+		return converted.toString(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void transcoderTest() throws IOException {
+		final StringBuilder log = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			log.append(i).append(" caf\u00E9 :joy: \uD83D\uDC4D\uD83C\uDFFD <:joy:123> :thumbsup::skin-tone-3: :pi\u00F1ata:\n");
+		}
+		log.append("no line break at the end :joy:");
+
+		final Path input = Files.createTempFile("emoji-log", ".txt");
+		final Path unicode = Files.createTempFile("emoji-log-unicode", ".txt");
+		final Path shortcodes = Files.createTempFile("emoji-log-shortcodes", ".txt");
+		try {
+			Files.writeString(input, log);
+
+			//Small segments, so lines are split across threads
+			final EmojiFileTranscoder toUnicode = new EmojiFileTranscoder(EmojiRegistry.getDefault(), EmojiTransform.TO_UNICODE, 3, 100);
+			final long written = toUnicode.transcode(input, unicode);
+			assertEquals(EmojiParser.toUnicode(log.toString()), Files.readString(unicode));
+			assertEquals(Files.size(unicode), written);
+
+			new EmojiFileTranscoder(EmojiTransform.TO_SHORTCODES).transcode(unicode, shortcodes);
+			assertEquals(EmojiParser.toShortcodes(EmojiParser.toUnicode(log.toString())), Files.readString(shortcodes));
+
+			assertThrows(IllegalArgumentException.class, () -> toUnicode.transcode(input, input));
+		} finally {
+			Files.deleteIfExists(input);
+			Files.deleteIfExists(unicode);
+			Files.deleteIfExists(shortcodes);
+		}
+	}
+
+	@Test
+	public void parallelTest() throws IOException {
+		final StringBuilder text = new StringBuilder();
+		final List<String> messages = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			final String message = i + " :joy: :thumbsup::skin-tone-3: \uD83D\uDC68\u200D\uD83D\uDC69\u200D\uD83D\uDC67 <:joy:123>" + (i % 7 == 0 ? "\n" : " ");
+			text.append(message);
+			messages.add(message);
+		}
+
+		//Large enough to be split, the chunks must give the same result as a sequential conversion
+		final String str = text.toString();
+		final String unicode = EmojiParser.toUnicode(str);
+		assertEquals(unicode, EmojiParser.toUnicodeParallel(str));
+		assertEquals(EmojiParser.toShortcodes(unicode), EmojiParser.toShortcodesParallel(unicode));
+		assertEquals(EmojiParser.toShortcodes(unicode, ShortcodePolicy.SHORTEST), EmojiRegistry.getDefault().toShortcodesParallel(unicode, ShortcodePolicy.SHORTEST));
+
+		final List<String> unicodeMessages = EmojiParser.toUnicode(messages);
+		assertEquals(messages.stream().map(EmojiParser::toUnicode).collect(Collectors.toList()), unicodeMessages);
+		assertEquals(unicodeMessages.stream().map(EmojiParser::toShortcodes).collect(Collectors.toList()), EmojiParser.toShortcodes(unicodeMessages));
+
+		//Chunks are cut at whitespace, which aliases cannot contain
+		assertThrows(IllegalArgumentException.class, () -> EmojiRegistry.getDefault().overlay(Map.of("tears of joy", "joy")));
+
+		//Nor can the shortcodes of a loaded store be matched, whether the text is split or not
+		final Path path = Files.createTempFile("JEmojis", ".json");
+		try {
+			final EmojiStore store = new EmojiStore();
+			store.getEmojis().add(new Emoji("face-with-tears-of-joy", "\uD83D\uDE02", List.of("tears of joy", "joy"), false));
+			store.save(path);
+
+			try (ReloadableEmojiRegistry registry = EmojiRegistry.load(path)) {
+				final String spaced = ":tears of joy: :joy:\n".repeat(10000);
+				assertEquals(":tears of joy: \uD83D\uDE02\n".repeat(10000), registry.toUnicode(spaced));
+				assertEquals(registry.toUnicode(spaced), registry.toUnicodeParallel(spaced));
+			}
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	@Test
+	public void processorTest() throws Exception {
+		assertEquals("I'm  !", EmojiParser.stripEmojis("I'm \uD83D\uDE02\uD83D\uDC4D\uD83C\uDFFD !"));
+		assertEquals("\uD83D\uDE02\uD83D\uDC4D\uD83C\uDFFD", EmojiParser.extractEmojis("I'm \uD83D\uDE02, \uD83D\uDC4D\uD83C\uDFFD"));
+		assertEquals("", EmojiParser.extractEmojis("nothing :joy:"));
+
+		final ByteBuffer out = ByteBuffer.allocate(64);
+		assertTrue(Utf8EmojiParser.getDefault().stripEmojis(ByteBuffer.wrap("caf\u00E9 \uD83D\uDE02!".getBytes(StandardCharsets.UTF_8)), out));
+		assertEquals("caf\u00E9 !", new String(out.array(), 0, out.position(), StandardCharsets.UTF_8));
+
+		final List<String> messages = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			messages.add(i + " :joy: :thumbsup::skin-tone-3:" + " :heart:".repeat(i % 50));
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		final SubmissionPublisher<String> publisher = new SubmissionPublisher<>(executor, 32);
+		try {
+			//Small buffer and batches, so messages are batched, transformed out of order, and wait for demand
+			final EmojiTransformProcessor processor = new EmojiTransformProcessor(EmojiRegistry.getDefault(), EmojiTransform.TO_UNICODE, executor, 4, 16, 8);
+			final CompletableFuture<List<String>> received = new CompletableFuture<>();
+			processor.subscribe(new Flow.Subscriber<>() {
+				private final List<String> items = new ArrayList<>();
+				private Flow.Subscription subscription;
+
+				@Override
+				public void onSubscribe(Flow.Subscription subscription) {
+					this.subscription = subscription;
+					subscription.request(1);
+				}
+
+				@Override
+				public void onNext(String item) {
+					items.add(item);
+					subscription.request(1);
+				}
+
+				@Override
+				public void onError(Throwable throwable) {
+					received.completeExceptionally(throwable);
+				}
+
+				@Override
+				public void onComplete() {
+					received.complete(items);
+				}
+			});
+			publisher.subscribe(processor);
+
+			messages.forEach(publisher::submit);
+			//Completes the processor, and then its subscriber
+			publisher.close();
+
+			assertEquals(EmojiParser.toUnicode(messages), received.get(10, TimeUnit.SECONDS));
+		} finally {
+			publisher.close();
+			executor.shutdownNow();
+		}
+
+		//A second subscriber is rejected
+		final EmojiTransformProcessor processor = new EmojiTransformProcessor(EmojiTransform.EXTRACT);
+		final CompletableFuture<Throwable> rejected = new CompletableFuture<>();
+		final Flow.Subscriber<String> subscriber = new Flow.Subscriber<>() {
+			@Override
+			public void onSubscribe(Flow.Subscription subscription) {}
+
+			@Override
+			public void onNext(String item) {}
+
+			@Override
+			public void onError(Throwable throwable) {
+				rejected.complete(throwable);
+			}
+
+			@Override
+			public void onComplete() {}
+		};
+		processor.subscribe(subscriber);
+		processor.subscribe(subscriber);
+		assertTrue(rejected.getNow(null) instanceof IllegalStateException);
+	}
+
+	@Test
+	public void sequenceTest() {
+		final String zz = "\uD83C\uDDFF\uD83C\uDDFF";
+		final String au = "\uD83C\uDDE6\uD83C\uDDFA";
+
+		//ZZ is not a flag, but its second indicator must not be paired with the next one, which would give ZA
+		final List<EmojiMatch> matches = Emojis.findAll(zz + au);
+		assertEquals(3, matches.size());
+		assertMatch(matches.get(0), "regional_indicator_z", 0, 2);
+		assertMatch(matches.get(1), "regional_indicator_z", 2, 4);
+		assertMatch(matches.get(2), "flag_au", 4, 8);
+		assertEquals(":regional_indicator_z::regional_indicator_z::flag_au:", EmojiParser.toShortcodes(zz + au));
+		assertEquals(":flag_fr::flag_au:", EmojiParser.toShortcodes("\uD83C\uDDEB\uD83C\uDDF7" + au));
+
+		//Keycaps, with and without variation selector
+		assertEquals(":hash: :hash:", EmojiParser.toShortcodes("#\uFE0F\u20E3 #\u20E3"));
+
+		//Subdivision flags, known and unknown (US-CA)
+		final String england = "\uD83C\uDFF4\uDB40\uDC67\uDB40\uDC62\uDB40\uDC65\uDB40\uDC6E\uDB40\uDC67\uDB40\uDC7F";
+		final String california = "\uD83C\uDFF4\uDB40\uDC75\uDB40\uDC73\uDB40\uDC63\uDB40\uDC61\uDB40\uDC7F";
+		assertEquals(":england: :flag_black:", EmojiParser.toShortcodes(england + " " + california));
+		assertMatch(Emojis.findAll(california).get(0), "flag_black", 0, california.length());
+
+		//ZWJ sequences are matched as a whole
+		final List<EmojiMatch> family = Emojis.findAll("\uD83D\uDC68\u200D\uD83D\uDC69\u200D\uD83D\uDC67");
+		assertEquals(1, family.size());
+	}
+
+	private static void assertMatch(EmojiMatch match, String shortcode, int start, int end) {
+		assertEquals(Emojis.ofShortcode(shortcode), match.getEmoji());
+		assertEquals(start, match.getStart());
+		assertEquals(end, match.getEnd());
 	}
 
 	@Test
 	public void checkShortcodesTest() {
 		for (Emoji emoji : Emojis.getEmojis()) {
 			for (String shortcode : emoji.shortcodes()) {
-				final Matcher matcher = shortcodePattern.matcher(':' + shortcode + ':');
-
-				assertTrue(matcher.matches(), () -> "Incorrect shortcode: " + shortcode);
+				assertEquals(emoji.unicode(), EmojiParser.toUnicode(':' + shortcode + ':'), () -> "Incorrect shortcode: " + shortcode);
 			}
 		}
 	}